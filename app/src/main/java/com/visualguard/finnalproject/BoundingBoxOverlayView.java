@@ -8,14 +8,15 @@ import android.graphics.RectF;
 import android.util.AttributeSet;
 import android.view.View;
 
-import org.tensorflow.lite.task.vision.detector.Detection;
-
-import java.util.List;
-
 public class BoundingBoxOverlayView extends View {
-    private List<Detection> detections;
+    private DetectionFrame frame = DetectionFrame.EMPTY;
+    private ObjectLabels labels;
     private Paint boxPaint, textPaint;
-    private float scaleFactor = 1.0f;
+    private float scaleX = 1.0f;
+    private float scaleY = 1.0f;
+
+    // Reused while drawing
+    private final RectF drawRect = new RectF();
 
     // Color palette for different objects
     private int[] colors = {
@@ -46,36 +47,60 @@ public class BoundingBoxOverlayView extends View {
         textPaint.setStyle(Paint.Style.FILL);
     }
 
-    public void setDetections(List<Detection> detections) {
-        this.detections = detections;
+    public void setLabels(ObjectLabels labels) {
+        this.labels = labels;
+    }
+
+    /**
+     * Show a frame of tracked objects. Boxes are in model coordinates and scaled to the view here.
+     */
+    public void setFrame(DetectionFrame frame, float scaleX, float scaleY) {
+        this.frame = frame != null ? frame : DetectionFrame.EMPTY;
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
         invalidate(); // Redraw view
     }
 
+    /**
+     * Called for every preview frame so boxes move between detector results
+     */
+    public void onPreviewFrame() {
+        if (frame.size() > 0) {
+            invalidate();
+        }
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
-        if (detections == null || detections.isEmpty()) {
+        DetectionFrame current = frame;
+        if (current.size() == 0) {
             return;
         }
 
-        for (int i = 0; i < detections.size(); i++) {
-            Detection detection = detections.get(i);
-            if (detection.getCategories() != null && !detection.getCategories().isEmpty()) {
-                String label = detection.getCategories().get(0).getLabel();
-                float confidence = detection.getCategories().get(0).getScore();
-                RectF boundingBox = detection.getBoundingBox();
-
-                if (confidence > 0.3f) {
-                    // Draw bounding box
-                    boxPaint.setColor(colors[i % colors.length]);
-                    canvas.drawRect(boundingBox, boxPaint);
-
-                    // Draw label
-                    String text = String.format("%s %.1f", label, confidence);
-                    canvas.drawText(text, boundingBox.left, boundingBox.top - 10, textPaint);
-                }
-            }
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < current.size(); i++) {
+            float confidence = current.score(i);
+            if (confidence <= 0.3f) continue;
+
+            // Extrapolate each box from its own last measurement, so coasting tracks do not lag
+            long dt = Math.min(Math.max(now - current.seenAt(i), 0), ObjectTracker.MAX_PREDICTION_MS);
+
+            float dx = current.velocityX(i) * dt;
+            float dy = current.velocityY(i) * dt;
+            drawRect.set((current.left(i) + dx) * scaleX, (current.top(i) + dy) * scaleY,
+                    (current.right(i) + dx) * scaleX, (current.bottom(i) + dy) * scaleY);
+
+            // Draw bounding box, colour stays with the track
+            int colorIndex = current.hasTracks() ? current.trackId(i) : i;
+            boxPaint.setColor(colors[colorIndex % colors.length]);
+            canvas.drawRect(drawRect, boxPaint);
+
+            // Draw label
+            String label = labels != null ? labels.nameOf(current.labelId(i)) : "";
+            String text = String.format("%s %.1f", label, confidence);
+            canvas.drawText(text, drawRect.left, drawRect.top - 10, textPaint);
         }
     }
-}
\ No newline at end of file
+}
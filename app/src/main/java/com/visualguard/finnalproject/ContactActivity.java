@@ -10,7 +10,6 @@ import android.provider.ContactsContract;
 import android.speech.RecognitionListener;
 import android.speech.RecognizerIntent;
 import android.speech.SpeechRecognizer;
-import android.speech.tts.TextToSpeech;
 import android.telecom.TelecomManager;
 import android.telephony.SmsManager;
 import android.view.MotionEvent;
@@ -26,7 +25,7 @@ import java.util.Locale;
 
 public class ContactActivity extends AppCompatActivity {
 
-    private TextToSpeech tts;
+    private SpeechService speech;
     private SpeechRecognizer speechRecognizer;
     private View touchView;
 
@@ -85,12 +84,8 @@ public class ContactActivity extends AppCompatActivity {
     }
 
     private void initializeTTS() {
-        tts = new TextToSpeech(this, status -> {
-            if (status == TextToSpeech.SUCCESS) {
-                tts.setLanguage(Locale.ENGLISH);
-                speak("Touch and hold screen to speak a name");
-            }
-        });
+        speech = SpeechService.getInstance(this);
+        speak("Touch and hold screen to speak a name");
     }
 
     private void startListening() {
@@ -357,9 +352,8 @@ public class ContactActivity extends AppCompatActivity {
     }
 
     private void speak(String text) {
-        if (tts != null) {
-            tts.speak(text, TextToSpeech.QUEUE_FLUSH, null, "contact");
-        }
+        // Each prompt replaces the previous one, as the dialog has moved on
+        speech.speak(text, Utterance.Priority.NAVIGATION);
     }
 
     @Override
@@ -383,9 +377,6 @@ public class ContactActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (tts != null) {
-            tts.shutdown();
-        }
         if (speechRecognizer != null) {
             speechRecognizer.destroy();
         }
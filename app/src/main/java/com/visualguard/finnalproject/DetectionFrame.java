@@ -0,0 +1,98 @@
+package com.visualguard.finnalproject;
+
+/**
+ * Immutable, primitive-backed set of boxes for one frame. Boxes are in model input
+ * coordinates (left, top, right, bottom per entry) and labels are ids into labels.txt
+ * (see ObjectLabels), so consumers scale and name them without touching the
+ * TFLite Detection objects.
+ * Raw detector output has no track ids or velocities; frames produced by
+ * ObjectTracker carry both, and when each track was last measured, so the overlay can
+ * extrapolate boxes between results.
+ */
+public final class DetectionFrame {
+
+    public static final DetectionFrame EMPTY = new DetectionFrame(0, new float[0], new int[0], new float[0], 0);
+
+    private final int count;
+    private final float[] boxes;
+    private final int[] labelIds;
+    private final float[] scores;
+    private final int[] trackIds;      // null for raw detections
+    private final float[] velocities;  // vx, vy per entry in px/ms, null for raw detections
+    private final long[] seenAt;       // when each box was last measured, null for raw detections
+    private final long timestamp;
+
+    public DetectionFrame(int count, float[] boxes, int[] labelIds, float[] scores, long timestamp) {
+        this(count, boxes, labelIds, scores, null, null, null, timestamp);
+    }
+
+    /**
+     * Arrays are taken over, not copied: callers must not modify them afterwards
+     */
+    public DetectionFrame(int count, float[] boxes, int[] labelIds, float[] scores,
+                          int[] trackIds, float[] velocities, long[] seenAt, long timestamp) {
+        this.count = count;
+        this.boxes = boxes;
+        this.labelIds = labelIds;
+        this.scores = scores;
+        this.trackIds = trackIds;
+        this.velocities = velocities;
+        this.seenAt = seenAt;
+        this.timestamp = timestamp;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public float left(int i) {
+        return boxes[i * 4];
+    }
+
+    public float top(int i) {
+        return boxes[i * 4 + 1];
+    }
+
+    public float right(int i) {
+        return boxes[i * 4 + 2];
+    }
+
+    public float bottom(int i) {
+        return boxes[i * 4 + 3];
+    }
+
+    public int labelId(int i) {
+        return labelIds[i];
+    }
+
+    public float score(int i) {
+        return scores[i];
+    }
+
+    public boolean hasTracks() {
+        return trackIds != null;
+    }
+
+    public int trackId(int i) {
+        return trackIds != null ? trackIds[i] : -1;
+    }
+
+    public float velocityX(int i) {
+        return velocities != null ? velocities[i * 2] : 0f;
+    }
+
+    public float velocityY(int i) {
+        return velocities != null ? velocities[i * 2 + 1] : 0f;
+    }
+
+    /**
+     * When box i was last measured; older than getTimestamp() for a coasting track
+     */
+    public long seenAt(int i) {
+        return seenAt != null ? seenAt[i] : timestamp;
+    }
+}
@@ -0,0 +1,176 @@
+package com.visualguard.finnalproject;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+
+import org.tensorflow.lite.task.core.BaseOptions;
+import org.tensorflow.lite.task.vision.detector.ObjectDetector;
+
+import java.util.Locale;
+
+/**
+ * Object detector settings, persisted in SharedPreferences so they can be tuned per
+ * device in the field (e.g. via intent extras from adb) without shipping a new APK.
+ *
+ * Note: the TFLite Task library does not expose an XNNPACK switch; its CPU path always
+ * uses the runtime's default XNNPACK delegate. The delegate setting therefore chooses
+ * between that CPU path and NNAPI.
+ */
+public class DetectorConfig {
+    public static final String PREFS_NAME = "detector_config";
+
+    public static final String KEY_MODEL = "model";
+    public static final String KEY_THREADS = "threads";
+    public static final String KEY_DELEGATE = "delegate";
+    public static final String KEY_INPUT_SIZE = "input_size";
+    public static final String KEY_MAX_RESULTS = "max_results";
+    public static final String KEY_SCORE_THRESHOLD = "score_threshold";
+
+    public static final String DELEGATE_CPU = "cpu";
+    public static final String DELEGATE_NNAPI = "nnapi";
+
+    /**
+     * Bundled EfficientDet-Lite variants and their native input resolution
+     */
+    public enum ModelVariant {
+        LITE0("efficientdet-lite0.tflite", 320),
+        LITE1("efficientdet-lite1.tflite", 384),
+        LITE2("efficientdet-lite2.tflite", 448);
+
+        public final String assetName;
+        public final int nativeInputSize;
+
+        ModelVariant(String assetName, int nativeInputSize) {
+            this.assetName = assetName;
+            this.nativeInputSize = nativeInputSize;
+        }
+
+        public static ModelVariant fromName(String name, ModelVariant fallback) {
+            if (name == null) return fallback;
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return fallback;
+            }
+        }
+    }
+
+    public static final ModelVariant DEFAULT_MODEL = ModelVariant.LITE1;
+    public static final int DEFAULT_THREADS = 2;
+    public static final int DEFAULT_MAX_RESULTS = 5;
+    public static final float DEFAULT_SCORE_THRESHOLD = 0.4f;
+
+    public final ModelVariant model;
+    public final int numThreads;
+    public final String delegate;
+    public final int inputSize;        // 0 means the model's native size
+    public final int maxResults;
+    public final float scoreThreshold;
+
+    public DetectorConfig(ModelVariant model, int numThreads, String delegate,
+                          int inputSize, int maxResults, float scoreThreshold) {
+        this.model = model;
+        this.numThreads = Math.max(1, numThreads);
+        this.delegate = DELEGATE_NNAPI.equals(delegate) ? DELEGATE_NNAPI : DELEGATE_CPU;
+        this.inputSize = Math.max(0, inputSize);
+        this.maxResults = Math.max(1, maxResults);
+        this.scoreThreshold = scoreThreshold;
+    }
+
+    public static DetectorConfig defaults() {
+        return new DetectorConfig(DEFAULT_MODEL, DEFAULT_THREADS, DELEGATE_CPU, 0,
+                DEFAULT_MAX_RESULTS, DEFAULT_SCORE_THRESHOLD);
+    }
+
+    public static DetectorConfig load(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        return new DetectorConfig(
+                ModelVariant.fromName(prefs.getString(KEY_MODEL, null), DEFAULT_MODEL),
+                prefs.getInt(KEY_THREADS, DEFAULT_THREADS),
+                prefs.getString(KEY_DELEGATE, DELEGATE_CPU),
+                prefs.getInt(KEY_INPUT_SIZE, 0),
+                prefs.getInt(KEY_MAX_RESULTS, DEFAULT_MAX_RESULTS),
+                prefs.getFloat(KEY_SCORE_THRESHOLD, DEFAULT_SCORE_THRESHOLD));
+    }
+
+    public void save(Context context) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putString(KEY_MODEL, model.name().toLowerCase(Locale.ROOT))
+                .putInt(KEY_THREADS, numThreads)
+                .putString(KEY_DELEGATE, delegate)
+                .putInt(KEY_INPUT_SIZE, inputSize)
+                .putInt(KEY_MAX_RESULTS, maxResults)
+                .putFloat(KEY_SCORE_THRESHOLD, scoreThreshold)
+                .apply();
+    }
+
+    /**
+     * Apply any overrides passed as intent extras (same keys as the preferences),
+     * e.g. adb shell am start ... --es model lite0 --ei threads 4
+     */
+    public DetectorConfig withOverrides(Intent intent) {
+        if (intent == null || intent.getExtras() == null) return this;
+        return new DetectorConfig(
+                ModelVariant.fromName(intent.getStringExtra(KEY_MODEL), model),
+                intent.getIntExtra(KEY_THREADS, numThreads),
+                intent.hasExtra(KEY_DELEGATE) ? intent.getStringExtra(KEY_DELEGATE) : delegate,
+                intent.getIntExtra(KEY_INPUT_SIZE, inputSize),
+                intent.getIntExtra(KEY_MAX_RESULTS, maxResults),
+                intent.getFloatExtra(KEY_SCORE_THRESHOLD, scoreThreshold));
+    }
+
+    /**
+     * Same settings with a different model, used when a variant's asset is missing
+     */
+    public DetectorConfig withModel(ModelVariant variant) {
+        return new DetectorConfig(variant, numThreads, delegate, inputSize, maxResults, scoreThreshold);
+    }
+
+    /**
+     * Resolution frames are resized to before inference
+     */
+    public int getEffectiveInputSize() {
+        return inputSize > 0 ? inputSize : model.nativeInputSize;
+    }
+
+    public ObjectDetector.ObjectDetectorOptions buildOptions() {
+        BaseOptions.Builder baseOptions = BaseOptions.builder().setNumThreads(numThreads);
+        if (DELEGATE_NNAPI.equals(delegate)) {
+            baseOptions.useNnapi();
+        }
+        return ObjectDetector.ObjectDetectorOptions.builder()
+                .setBaseOptions(baseOptions.build())
+                .setMaxResults(maxResults)
+                .setScoreThreshold(scoreThreshold)
+                .build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DetectorConfig)) return false;
+        DetectorConfig other = (DetectorConfig) o;
+        return model == other.model && numThreads == other.numThreads
+                && delegate.equals(other.delegate) && inputSize == other.inputSize
+                && maxResults == other.maxResults
+                && Float.compare(scoreThreshold, other.scoreThreshold) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = model.hashCode();
+        result = 31 * result + numThreads;
+        result = 31 * result + delegate.hashCode();
+        result = 31 * result + inputSize;
+        result = 31 * result + maxResults;
+        result = 31 * result + Float.floatToIntBits(scoreThreshold);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "DetectorConfig{model=%s, threads=%d, delegate=%s, input=%d, max=%d, score=%.2f}",
+                model, numThreads, delegate, getEffectiveInputSize(), maxResults, scoreThreshold);
+    }
+}
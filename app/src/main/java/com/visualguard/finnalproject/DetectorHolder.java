@@ -0,0 +1,170 @@
+package com.visualguard.finnalproject;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import org.tensorflow.lite.support.common.FileUtil;
+import org.tensorflow.lite.support.image.TensorImage;
+import org.tensorflow.lite.task.vision.detector.Detection;
+import org.tensorflow.lite.task.vision.detector.ObjectDetector;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide owner of the object detector. The .tflite file is memory-mapped once,
+ * the detector is built on a background thread (warmed when MainActivity is shown) and
+ * the same instance is handed to every ObstacleDetectionActivity, so entering obstacle
+ * mode does not load the model on the main thread.
+ */
+public class DetectorHolder {
+    private static final String TAG = "DetectorHolder";
+
+    private static DetectorHolder instance;
+
+    public interface Callback {
+        /**
+         * Detector is ready. config is the configuration actually loaded, which differs
+         * from the requested one if the requested model variant is not bundled.
+         */
+        void onReady(DetectorConfig config, ObjectLabels labels);
+
+        void onError(Exception e);
+    }
+
+    private final Context appContext;
+    private final ExecutorService loader;
+    private final Handler mainHandler;
+
+    // Guarded by this
+    private final Map<DetectorConfig.ModelVariant, MappedByteBuffer> mappedModels =
+            new EnumMap<>(DetectorConfig.ModelVariant.class);
+    private ObjectDetector detector;
+    private DetectorConfig loadedConfig;
+    private DetectorConfig requestedConfig;
+    private ObjectLabels labels;
+
+    private DetectorHolder(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.loader = Executors.newSingleThreadExecutor(r -> new Thread(r, "DetectorLoader"));
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    public static synchronized DetectorHolder getInstance(Context context) {
+        if (instance == null) {
+            instance = new DetectorHolder(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Start loading the detector in the background so it is ready before it is needed
+     */
+    public void warmUp(DetectorConfig config) {
+        loader.execute(() -> {
+            try {
+                ensureLoaded(config);
+            } catch (IOException e) {
+                Log.e(TAG, "Detector warm-up failed", e);
+            }
+        });
+    }
+
+    /**
+     * Get the detector for the given configuration. Returns immediately (via the main
+     * thread) if it is already warm, otherwise after the background load finishes.
+     */
+    public void acquire(DetectorConfig config, Callback callback) {
+        loader.execute(() -> {
+            try {
+                DetectorConfig loaded = ensureLoaded(config);
+                ObjectLabels loadedLabels;
+                synchronized (this) {
+                    loadedLabels = labels;
+                }
+                mainHandler.post(() -> callback.onReady(loaded, loadedLabels));
+            } catch (IOException e) {
+                mainHandler.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Run detection. Calls are serialised, so an activity that is shutting down and
+     * one that is starting can never use the native detector at the same time.
+     */
+    public synchronized List<Detection> detect(TensorImage image) {
+        if (detector == null) {
+            throw new IllegalStateException("Detector not loaded");
+        }
+        return detector.detect(image);
+    }
+
+    /**
+     * Release the detector and mapped models, e.g. on low memory
+     */
+    public synchronized void close() {
+        if (detector != null) {
+            detector.close();
+            detector = null;
+        }
+        loadedConfig = null;
+        requestedConfig = null;
+        mappedModels.clear();
+    }
+
+    private DetectorConfig ensureLoaded(DetectorConfig config) throws IOException {
+        synchronized (this) {
+            if (detector != null && config.equals(requestedConfig)) {
+                return loadedConfig;
+            }
+        }
+
+        ObjectLabels loadedLabels = labels != null ? labels : ObjectLabels.fromAsset(appContext);
+
+        DetectorConfig actual = config;
+        ObjectDetector created;
+        try {
+            created = createDetector(config);
+        } catch (IOException e) {
+            if (config.model == DetectorConfig.DEFAULT_MODEL) throw e;
+            // Variant not bundled in this build, fall back to the default model
+            Log.w(TAG, "Model " + config.model.assetName + " unavailable, using default", e);
+            actual = config.withModel(DetectorConfig.DEFAULT_MODEL);
+            created = createDetector(actual);
+        }
+
+        synchronized (this) {
+            if (detector != null) {
+                detector.close();
+            }
+            detector = created;
+            loadedConfig = actual;
+            requestedConfig = config;
+            labels = loadedLabels;
+        }
+        Log.d(TAG, "Object detection model loaded successfully: " + actual);
+        return actual;
+    }
+
+    private ObjectDetector createDetector(DetectorConfig config) throws IOException {
+        MappedByteBuffer model;
+        synchronized (this) {
+            model = mappedModels.get(config.model);
+        }
+        if (model == null) {
+            model = FileUtil.loadMappedFile(appContext, config.model.assetName);
+            synchronized (this) {
+                mappedModels.put(config.model, model);
+            }
+        }
+        return ObjectDetector.createFromBufferAndOptions(model, config.buildOptions());
+    }
+}
@@ -0,0 +1,98 @@
+package com.visualguard.finnalproject;
+
+import android.media.Image;
+
+import org.tensorflow.lite.DataType;
+import org.tensorflow.lite.support.image.ColorSpaceType;
+import org.tensorflow.lite.support.image.TensorImage;
+import org.tensorflow.lite.support.tensorbuffer.TensorBuffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed set of pre-allocated detector inputs. Each slot owns a direct RGB buffer sized for
+ * the model input and a TensorImage bound to it once, so filling a slot from a camera frame
+ * only overwrites bytes and never creates Bitmaps, ByteBuffers or TensorImages.
+ */
+public class DetectorInputPool {
+
+    /**
+     * One reusable model input
+     */
+    public static class Slot {
+        final ByteBuffer rgb;
+        final TensorImage tensorImage;
+
+        Slot(int inputSize) {
+            rgb = ByteBuffer.allocateDirect(inputSize * inputSize * 3);
+            rgb.order(ByteOrder.nativeOrder());
+
+            TensorBuffer tensorBuffer = TensorBuffer.createFixedSize(
+                    new int[]{inputSize, inputSize, 3}, DataType.UINT8);
+            tensorBuffer.loadBuffer(rgb);
+
+            tensorImage = new TensorImage(DataType.UINT8);
+            tensorImage.load(tensorBuffer, ColorSpaceType.RGB);
+        }
+
+        public TensorImage getTensorImage() {
+            return tensorImage;
+        }
+    }
+
+    private final int inputSize;
+    private final Slot[] slots;
+    private final boolean[] inUse;
+    private final YuvFrameConverter converter = new YuvFrameConverter();
+
+    public DetectorInputPool(int inputSize, int capacity) {
+        this.inputSize = inputSize;
+        this.slots = new Slot[capacity];
+        this.inUse = new boolean[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(inputSize);
+        }
+    }
+
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    /**
+     * Take a free slot, or null if every slot is still in use
+     */
+    public synchronized Slot acquire() {
+        for (int i = 0; i < slots.length; i++) {
+            if (!inUse[i]) {
+                inUse[i] = true;
+                return slots[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return a slot to the pool
+     */
+    public synchronized void release(Slot slot) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == slot) {
+                inUse[i] = false;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Fused YUV -> RGB -> rotate -> resize of a camera frame into the given slot.
+     * Must be called from a single thread, the converter keeps its sampling tables.
+     */
+    public void fill(Slot slot, Image image, int rotationDegrees) {
+        Image.Plane[] planes = image.getPlanes();
+        converter.yuvToRgbResized(planes[0].getBuffer(), planes[1].getBuffer(), planes[2].getBuffer(),
+                planes[0].getRowStride(), planes[1].getRowStride(), planes[1].getPixelStride(),
+                image.getWidth(), image.getHeight(), rotationDegrees,
+                slot.rgb, inputSize);
+    }
+}
@@ -0,0 +1,100 @@
+package com.visualguard.finnalproject;
+
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioManager;
+import android.media.AudioTrack;
+import android.util.Log;
+
+/**
+ * Plays EarconSynth cues through a low-latency AudioTrack from its own thread. The thread
+ * sleeps while no cue is sounding and renders small blocks while one is, so a cue is
+ * audible within a block plus the track's buffer (well under 100 ms) of cue().
+ */
+public class EarconPlayer {
+    private static final String TAG = "EarconPlayer";
+    private static final int BLOCK_FRAMES = 256;
+
+    private final EarconSynth synth;
+    private final AudioTrack track;
+    private final Thread thread;
+    private final Object signal = new Object();
+    private volatile boolean running = true;
+
+    public EarconPlayer() {
+        int sampleRate = AudioTrack.getNativeOutputSampleRate(AudioManager.STREAM_MUSIC);
+        synth = new EarconSynth(sampleRate);
+
+        int minBuffer = AudioTrack.getMinBufferSize(sampleRate,
+                AudioFormat.CHANNEL_OUT_STEREO, AudioFormat.ENCODING_PCM_16BIT);
+        track = new AudioTrack.Builder()
+                .setAudioAttributes(new AudioAttributes.Builder()
+                        .setUsage(AudioAttributes.USAGE_ASSISTANCE_SONIFICATION)
+                        .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                        .build())
+                .setAudioFormat(new AudioFormat.Builder()
+                        .setSampleRate(sampleRate)
+                        .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                        .setChannelMask(AudioFormat.CHANNEL_OUT_STEREO)
+                        .build())
+                .setBufferSizeInBytes(Math.max(minBuffer, BLOCK_FRAMES * 4 * 2))
+                .setTransferMode(AudioTrack.MODE_STREAM)
+                .setPerformanceMode(AudioTrack.PERFORMANCE_MODE_LOW_LATENCY)
+                .build();
+
+        thread = new Thread(this::run, "EarconPlayer");
+        thread.start();
+    }
+
+    /**
+     * Sound a cue for an obstacle
+     *
+     * @param directionZone zone from ObstacleDetectorManager (horizontal * 3 + vertical)
+     * @param distance      relative distance, 0 very close to 1 far
+     * @param urgent        close or fast-approaching objects get a double pulse
+     */
+    public void cue(int directionZone, float distance, boolean urgent) {
+        synth.start(EarconSynth.frequencyForDistance(distance),
+                EarconSynth.panForHorizontalZone(ObstacleDetectorManager.horizontalZoneOf(directionZone)),
+                EarconSynth.glideForVerticalZone(ObstacleDetectorManager.verticalZoneOf(directionZone)),
+                urgent ? 2 : 1);
+        synchronized (signal) {
+            signal.notify();
+        }
+    }
+
+    private void run() {
+        short[] block = new short[BLOCK_FRAMES * 2];
+        track.play();
+        try {
+            while (running) {
+                synchronized (signal) {
+                    while (running && !synth.isActive()) {
+                        signal.wait();
+                    }
+                }
+                if (!running) break;
+                synth.render(block, BLOCK_FRAMES);
+                // Blocks until there is room, which paces rendering to playback
+                track.write(block, 0, block.length);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            Log.e(TAG, "Earcon playback stopped", e);
+        }
+    }
+
+    public void release() {
+        running = false;
+        synchronized (signal) {
+            signal.notify();
+        }
+        try {
+            thread.join(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        track.release();
+    }
+}
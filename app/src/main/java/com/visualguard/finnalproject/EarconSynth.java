@@ -0,0 +1,138 @@
+package com.visualguard.finnalproject;
+
+import java.util.Arrays;
+
+/**
+ * Real-time mixer for obstacle earcons: short sine tones whose pitch gives distance,
+ * stereo pan gives the horizontal direction zone and a pitch glide gives the vertical
+ * one (rising above, falling below). Close or fast-approaching objects get a double
+ * pulse. start() may be called from any thread while the audio thread calls render().
+ */
+public class EarconSynth {
+    public static final int TONE_MS = 90;
+    public static final int PULSE_GAP_MS = 60;
+    private static final int ATTACK_MS = 5;
+    private static final int MAX_VOICES = 4;
+
+    // Distance 1 (far) to 0 (very close) maps over two octaves, low to high
+    private static final float FAR_HZ = 330f;
+    private static final float OCTAVES = 2f;
+    private static final float GLIDE_UP = 1.25f;
+    private static final float GLIDE_DOWN = 0.8f;
+    private static final float AMPLITUDE = 0.5f;
+
+    private static class Voice {
+        double phase;
+        int position;
+        float startHz;
+        float endHz;
+        float leftGain;
+        float rightGain;
+        int pulses;
+    }
+
+    private final int sampleRate;
+    private final int toneFrames;
+    private final int pulseFrames;
+    private final int attackFrames;
+    // Guarded by this
+    private final Voice[] voices = new Voice[MAX_VOICES];
+    private int voiceCount = 0;
+
+    public EarconSynth(int sampleRate) {
+        this.sampleRate = sampleRate;
+        this.toneFrames = sampleRate * TONE_MS / 1000;
+        this.pulseFrames = toneFrames + sampleRate * PULSE_GAP_MS / 1000;
+        this.attackFrames = Math.max(1, sampleRate * ATTACK_MS / 1000);
+        for (int i = 0; i < MAX_VOICES; i++) voices[i] = new Voice();
+    }
+
+    public static float frequencyForDistance(float distance) {
+        float closeness = 1f - Math.max(0f, Math.min(1f, distance));
+        return (float) (FAR_HZ * Math.pow(2, OCTAVES * closeness));
+    }
+
+    /**
+     * -1 (far left) to 1 (far right) for a horizontal zone index 0..4
+     */
+    public static float panForHorizontalZone(int horizontal) {
+        return (horizontal - 2) / 2f;
+    }
+
+    /**
+     * End-to-start pitch ratio for a vertical zone index (0 level, 1 above, 2 below)
+     */
+    public static float glideForVerticalZone(int vertical) {
+        return vertical == 1 ? GLIDE_UP : vertical == 2 ? GLIDE_DOWN : 1f;
+    }
+
+    /**
+     * Start a cue; if all voices are busy the oldest is replaced
+     */
+    public synchronized void start(float frequencyHz, float pan, float glide, int pulses) {
+        Voice voice;
+        if (voiceCount < MAX_VOICES) {
+            voice = voices[voiceCount++];
+        } else {
+            voice = voices[0];
+            System.arraycopy(voices, 1, voices, 0, MAX_VOICES - 1);
+            voices[MAX_VOICES - 1] = voice;
+        }
+        // Equal-power pan
+        double angle = (Math.max(-1f, Math.min(1f, pan)) + 1) * Math.PI / 4;
+        voice.phase = 0;
+        voice.position = 0;
+        voice.startHz = frequencyHz;
+        voice.endHz = frequencyHz * glide;
+        voice.leftGain = (float) Math.cos(angle) * AMPLITUDE;
+        voice.rightGain = (float) Math.sin(angle) * AMPLITUDE;
+        voice.pulses = Math.max(1, pulses);
+    }
+
+    public synchronized boolean isActive() {
+        return voiceCount > 0;
+    }
+
+    /**
+     * Mix the active voices into frames of interleaved stereo 16-bit PCM
+     */
+    public synchronized void render(short[] out, int frames) {
+        Arrays.fill(out, 0, frames * 2, (short) 0);
+        int v = 0;
+        while (v < voiceCount) {
+            if (renderVoice(voices[v], out, frames)) {
+                v++;
+            } else {
+                // Finished: move it behind the active voices
+                Voice done = voices[v];
+                System.arraycopy(voices, v + 1, voices, v, voiceCount - v - 1);
+                voices[--voiceCount] = done;
+            }
+        }
+    }
+
+    // Returns false once the voice has played all its pulses
+    private boolean renderVoice(Voice voice, short[] out, int frames) {
+        int length = (voice.pulses - 1) * pulseFrames + toneFrames;
+        for (int i = 0; i < frames && voice.position < length; i++, voice.position++) {
+            int inPulse = voice.position % pulseFrames;
+            if (inPulse >= toneFrames) continue;
+
+            float progress = inPulse / (float) toneFrames;
+            float hz = voice.startHz + (voice.endHz - voice.startHz) * progress;
+            voice.phase += 2 * Math.PI * hz / sampleRate;
+            // Short linear attack and release so the tone does not click
+            float envelope = Math.min(1f, Math.min(inPulse, toneFrames - inPulse) / (float) attackFrames);
+            float sample = (float) Math.sin(voice.phase) * envelope;
+
+            out[i * 2] = mix(out[i * 2], sample * voice.leftGain);
+            out[i * 2 + 1] = mix(out[i * 2 + 1], sample * voice.rightGain);
+        }
+        return voice.position < length;
+    }
+
+    private static short mix(short current, float sample) {
+        int value = current + Math.round(sample * Short.MAX_VALUE);
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+    }
+}
@@ -0,0 +1,100 @@
+package com.visualguard.finnalproject;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decides whether a camera frame differs enough from the last processed one to be
+ * worth running OCR on. Each frame is reduced to a GRID x GRID signature of sampled
+ * luma values, compared with the signature of the last accepted frame after removing
+ * the mean, so auto-exposure drift alone does not count as a change.
+ *
+ * A frame is always accepted after maxSkipMs so the result can still improve once
+ * the camera has focused on a still scene.
+ */
+public class FrameChangeDetector {
+    private static final int GRID = 16;
+    private static final int CELLS = GRID * GRID;
+    // Samples per cell along each axis
+    private static final int SUB = 2;
+
+    private final float threshold;
+    private final long maxSkipMs;
+
+    private final int[] current = new int[CELLS];
+    private final int[] reference = new int[CELLS];
+    private int referenceMean;
+    private boolean hasReference = false;
+    private long lastAcceptedTime;
+    private long skippedCount = 0;
+
+    /**
+     * @param threshold mean absolute luma difference (0-255) above which a frame counts as changed
+     * @param maxSkipMs longest time frames may be skipped in a row
+     */
+    public FrameChangeDetector(float threshold, long maxSkipMs) {
+        this.threshold = threshold;
+        this.maxSkipMs = maxSkipMs;
+    }
+
+    /**
+     * Returns true if the frame should be processed; it then becomes the new reference.
+     * Only reads the luma plane and does not allocate.
+     */
+    public boolean shouldProcess(ByteBuffer luma, int rowStride, int pixelStride,
+                                 int width, int height, long now) {
+        int mean = computeSignature(luma, rowStride, pixelStride, width, height);
+
+        if (hasReference && now - lastAcceptedTime < maxSkipMs
+                && difference(mean) < threshold) {
+            skippedCount++;
+            return false;
+        }
+
+        System.arraycopy(current, 0, reference, 0, CELLS);
+        referenceMean = mean;
+        hasReference = true;
+        lastAcceptedTime = now;
+        return true;
+    }
+
+    /**
+     * Forget the reference so the next frame is processed
+     */
+    public void reset() {
+        hasReference = false;
+    }
+
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    private int computeSignature(ByteBuffer luma, int rowStride, int pixelStride,
+                                 int width, int height) {
+        long total = 0;
+        for (int gy = 0; gy < GRID; gy++) {
+            for (int gx = 0; gx < GRID; gx++) {
+                int sum = 0;
+                for (int sy = 0; sy < SUB; sy++) {
+                    int y = ((gy * SUB + sy) * 2 + 1) * height / (GRID * SUB * 2);
+                    int rowOffset = y * rowStride;
+                    for (int sx = 0; sx < SUB; sx++) {
+                        int x = ((gx * SUB + sx) * 2 + 1) * width / (GRID * SUB * 2);
+                        sum += luma.get(rowOffset + x * pixelStride) & 0xFF;
+                    }
+                }
+                int value = sum / (SUB * SUB);
+                current[gy * GRID + gx] = value;
+                total += value;
+            }
+        }
+        return (int) (total / CELLS);
+    }
+
+    private float difference(int mean) {
+        long diff = 0;
+        for (int i = 0; i < CELLS; i++) {
+            diff += Math.abs((current[i] - mean) - (reference[i] - referenceMean));
+        }
+        return (float) diff / CELLS;
+    }
+}
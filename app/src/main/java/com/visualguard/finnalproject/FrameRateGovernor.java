@@ -0,0 +1,157 @@
+package com.visualguard.finnalproject;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.PowerManager;
+import android.util.Log;
+
+/**
+ * Decides how often a new frame is sent to the detector.
+ * The interval follows the measured inference latency (moving window) so the inference
+ * thread stays busy for TARGET_UTILISATION of the time, and the target drops when the
+ * device reports thermal throttling or battery saver.
+ */
+public class FrameRateGovernor {
+    private static final String TAG = "FrameRateGovernor";
+
+    public static final float TARGET_UTILISATION = 0.7f;
+    public static final long MIN_INTERVAL_MS = 33;   // ~30 fps, camera rate
+    public static final long MAX_INTERVAL_MS = 1000;
+    private static final long INITIAL_INTERVAL_MS = 150;
+    private static final int WINDOW_SIZE = 16;
+    private static final float ADJUST_RATE = 0.25f; // fraction of the gap closed per sample
+
+    private final long[] window = new long[WINDOW_SIZE];
+    private int windowCount = 0;
+    private int windowIndex = 0;
+    private long windowSum = 0;
+
+    private float intervalMs = INITIAL_INTERVAL_MS;
+    private long lastFrameStart = 0;
+
+    private int thermalStatus = PowerManager.THERMAL_STATUS_NONE;
+    private boolean powerSaveMode = false;
+
+    private PowerManager powerManager;
+    private Context context;
+    private PowerManager.OnThermalStatusChangedListener thermalListener;
+    private BroadcastReceiver powerSaveReceiver;
+
+    /**
+     * Start following thermal and battery saver state
+     */
+    public void attach(Context context) {
+        this.context = context.getApplicationContext();
+        powerManager = (PowerManager) this.context.getSystemService(Context.POWER_SERVICE);
+        if (powerManager == null) return;
+
+        onThermalStatusChanged(powerManager.getCurrentThermalStatus());
+        onPowerSaveModeChanged(powerManager.isPowerSaveMode());
+
+        thermalListener = this::onThermalStatusChanged;
+        powerManager.addThermalStatusListener(thermalListener);
+
+        powerSaveReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context c, Intent intent) {
+                onPowerSaveModeChanged(powerManager.isPowerSaveMode());
+            }
+        };
+        this.context.registerReceiver(powerSaveReceiver,
+                new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED));
+    }
+
+    public void detach() {
+        if (powerManager != null && thermalListener != null) {
+            powerManager.removeThermalStatusListener(thermalListener);
+            thermalListener = null;
+        }
+        if (context != null && powerSaveReceiver != null) {
+            try {
+                context.unregisterReceiver(powerSaveReceiver);
+            } catch (IllegalArgumentException ignored) {}
+            powerSaveReceiver = null;
+        }
+    }
+
+    /**
+     * Called for every camera frame. Returns true if the current period is over and this
+     * frame may be sent for inference.
+     */
+    public synchronized boolean isFrameDue(long now) {
+        return now - lastFrameStart >= (long) intervalMs;
+    }
+
+    /**
+     * Start a new period; call only once the frame is actually sent, so a frame dropped
+     * for lack of an input buffer does not use up an interval
+     */
+    public synchronized void startFrame(long now) {
+        lastFrameStart = now;
+    }
+
+    /**
+     * Record how long one inference took and move the interval towards the target
+     */
+    public synchronized void recordInference(long durationMs) {
+        if (windowCount == WINDOW_SIZE) {
+            windowSum -= window[windowIndex];
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = durationMs;
+        windowSum += durationMs;
+        windowIndex = (windowIndex + 1) % WINDOW_SIZE;
+
+        float average = (float) windowSum / windowCount;
+        float target = average / getTargetUtilisation();
+        target = Math.max(MIN_INTERVAL_MS, Math.min(MAX_INTERVAL_MS, target));
+        intervalMs += (target - intervalMs) * ADJUST_RATE;
+    }
+
+    public synchronized long getIntervalMs() {
+        return (long) intervalMs;
+    }
+
+    public synchronized float getAverageInferenceMs() {
+        return windowCount == 0 ? 0f : (float) windowSum / windowCount;
+    }
+
+    /**
+     * Share of time the inference thread may be busy under current device conditions
+     */
+    public synchronized float getTargetUtilisation() {
+        float utilisation = TARGET_UTILISATION;
+        if (thermalStatus >= PowerManager.THERMAL_STATUS_CRITICAL) {
+            utilisation = 0.1f;
+        } else if (thermalStatus >= PowerManager.THERMAL_STATUS_SEVERE) {
+            utilisation = 0.2f;
+        } else if (thermalStatus >= PowerManager.THERMAL_STATUS_MODERATE) {
+            utilisation = 0.4f;
+        }
+        if (powerSaveMode) {
+            utilisation = Math.min(utilisation, 0.3f);
+        }
+        return utilisation;
+    }
+
+    public synchronized void setThermalStatus(int status) {
+        thermalStatus = status;
+    }
+
+    public synchronized void setPowerSaveMode(boolean enabled) {
+        powerSaveMode = enabled;
+    }
+
+    private void onThermalStatusChanged(int status) {
+        Log.d(TAG, "Thermal status " + status);
+        setThermalStatus(status);
+    }
+
+    private void onPowerSaveModeChanged(boolean enabled) {
+        Log.d(TAG, "Battery saver " + (enabled ? "on" : "off"));
+        setPowerSaveMode(enabled);
+    }
+}
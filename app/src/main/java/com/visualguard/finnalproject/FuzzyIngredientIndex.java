@@ -0,0 +1,259 @@
+package com.visualguard.finnalproject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typo-tolerant lookup of ingredient names in OCR text ("glutcn", "peanul"). Every
+ * normalized name and alias is indexed by its trigrams. For each run of words in the
+ * text, entries sharing enough trigrams become candidates. At most MAX_CANDIDATES of
+ * them, those with the most shared trigrams, are then checked with a bounded edit
+ * distance. Complements IngredientMatcher, which only finds exact forms.
+ */
+public class FuzzyIngredientIndex {
+    // Shorter words have too many one-edit neighbours to match safely
+    public static final int MIN_LENGTH = 5;
+    // Forms at least this long may be two edits away
+    public static final int TWO_EDIT_LENGTH = 9;
+    public static final int MAX_CANDIDATES = 8;
+
+    private static final char PAD = '$';
+
+    private final String[] forms;
+    private final String[] canonicalNames;
+    private final Map<Integer, int[]> postings;
+    private final int maxWords;
+
+    // Per-query scratch, guarded by this
+    private final int[] sharedCounts;
+    private final int[] touched;
+    private final int[] candidates = new int[MAX_CANDIDATES];
+    private final int[] candidateShared = new int[MAX_CANDIDATES];
+    private int[] previousRow = new int[32];
+    private int[] currentRow = new int[32];
+
+    public FuzzyIngredientIndex(Collection<String> names) {
+        this(names, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * @param names   canonical ingredient names
+     * @param aliases other surface forms mapped to their canonical name
+     */
+    public FuzzyIngredientIndex(Collection<String> names, Map<String, String> aliases) {
+        List<String> formList = new ArrayList<>();
+        List<String> canonicalList = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String name : names) {
+            addForm(name, name, formList, canonicalList, seen);
+        }
+        for (Map.Entry<String, String> alias : aliases.entrySet()) {
+            addForm(alias.getKey(), alias.getValue(), formList, canonicalList, seen);
+        }
+        forms = formList.toArray(new String[0]);
+        canonicalNames = canonicalList.toArray(new String[0]);
+
+        int words = 1;
+        Map<Integer, List<Integer>> lists = new HashMap<>();
+        for (int i = 0; i < forms.length; i++) {
+            String form = forms[i];
+            words = Math.max(words, wordCount(form));
+            int previous = -1;
+            for (int g = 0; g < form.length(); g++) {
+                int trigram = trigramAt(form, g);
+                if (trigram == previous) continue;
+                List<Integer> list = lists.get(trigram);
+                if (list == null) {
+                    list = new ArrayList<>();
+                    lists.put(trigram, list);
+                }
+                // Same trigram twice in one form counts once
+                if (list.isEmpty() || list.get(list.size() - 1) != i) {
+                    list.add(i);
+                }
+                previous = trigram;
+            }
+        }
+        postings = new HashMap<>(lists.size() * 2);
+        for (Map.Entry<Integer, List<Integer>> entry : lists.entrySet()) {
+            List<Integer> list = entry.getValue();
+            int[] ids = new int[list.size()];
+            for (int i = 0; i < ids.length; i++) ids[i] = list.get(i);
+            postings.put(entry.getKey(), ids);
+        }
+        maxWords = words;
+        sharedCounts = new int[forms.length];
+        touched = new int[forms.length];
+    }
+
+    public int size() {
+        return forms.length;
+    }
+
+    /**
+     * Canonical names whose name or alias appears in text within the allowed edit
+     * distance, in order of first occurrence
+     */
+    public Set<String> match(String text) {
+        Set<String> found = new LinkedHashSet<>();
+        if (text == null || forms.length == 0) return found;
+        String normalized = TextNormalizer.normalizeToString(text);
+        if (normalized.isEmpty()) return found;
+
+        // Word boundaries of the normalized text
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= normalized.length(); i++) {
+            if (i == normalized.length() || normalized.charAt(i) == ' ') {
+                starts.add(start);
+                ends.add(i);
+                start = i + 1;
+            }
+        }
+
+        synchronized (this) {
+            for (int w = 0; w < starts.size(); w++) {
+                for (int n = 1; n <= maxWords && w + n <= starts.size(); n++) {
+                    String window = normalized.substring(starts.get(w), ends.get(w + n - 1));
+                    if (window.length() < MIN_LENGTH) continue;
+                    matchWindow(window, found);
+                }
+            }
+        }
+        return found;
+    }
+
+    private void matchWindow(String window, Set<String> found) {
+        int maxEdits = window.length() >= TWO_EDIT_LENGTH ? 2 : 1;
+
+        // Count shared trigrams per entry
+        int touchedCount = 0;
+        int previous = -1;
+        for (int g = 0; g < window.length(); g++) {
+            int trigram = trigramAt(window, g);
+            if (trigram == previous) continue;
+            previous = trigram;
+            int[] ids = postings.get(trigram);
+            if (ids == null) continue;
+            for (int id : ids) {
+                if (sharedCounts[id] == 0) touched[touchedCount++] = id;
+                sharedCounts[id]++;
+            }
+        }
+
+        // Keep the entries with the most shared trigrams that can still be close enough.
+        // Each edit destroys at most three trigrams, and a form has one trigram per char.
+        int candidateCount = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            int id = touched[t];
+            int shared = sharedCounts[id];
+            sharedCounts[id] = 0;
+
+            int length = forms[id].length();
+            if (Math.abs(length - window.length()) > maxEdits) continue;
+            if (shared < Math.max(length, window.length()) - 3 * maxEdits) continue;
+
+            candidateCount = insertCandidate(id, shared, candidateCount);
+        }
+
+        for (int c = 0; c < candidateCount; c++) {
+            int id = candidates[c];
+            if (boundedDistance(window, forms[id], maxEdits) <= maxEdits) {
+                found.add(canonicalNames[id]);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Insert into the candidate list, kept sorted by shared trigram count and capped
+     */
+    private int insertCandidate(int id, int shared, int count) {
+        int position = count;
+        while (position > 0 && candidateShared[position - 1] < shared) {
+            position--;
+        }
+        if (position >= MAX_CANDIDATES) return count;
+        int moved = Math.min(count, MAX_CANDIDATES - 1) - position;
+        System.arraycopy(candidates, position, candidates, position + 1, moved);
+        System.arraycopy(candidateShared, position, candidateShared, position + 1, moved);
+        candidates[position] = id;
+        candidateShared[position] = shared;
+        return Math.min(count + 1, MAX_CANDIDATES);
+    }
+
+    /**
+     * Levenshtein distance between a and b, or max + 1 as soon as it must exceed max
+     */
+    int boundedDistance(String a, String b, int max) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > max) return max + 1;
+        if (previousRow.length <= lb) {
+            previousRow = new int[lb + 1];
+            currentRow = new int[lb + 1];
+        }
+        for (int j = 0; j <= lb; j++) previousRow[j] = j;
+
+        for (int i = 1; i <= la; i++) {
+            currentRow[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= lb; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(currentRow[j - 1] + 1, previousRow[j] + 1),
+                        previousRow[j - 1] + cost);
+                currentRow[j] = value;
+                if (value < rowMin) rowMin = value;
+            }
+            if (rowMin > max) return max + 1;
+            int[] swap = previousRow;
+            previousRow = currentRow;
+            currentRow = swap;
+        }
+        return previousRow[lb];
+    }
+
+    private static void addForm(String surfaceForm, String canonical, List<String> formList,
+                                List<String> canonicalList, Set<String> seen) {
+        if (surfaceForm == null || canonical == null) return;
+        String form = TextNormalizer.normalizeToString(surfaceForm);
+        // Digits (E-numbers, quantities) are matched exactly only
+        if (form.length() < MIN_LENGTH || containsDigit(form) || !seen.add(form)) return;
+        formList.add(form);
+        canonicalList.add(canonical);
+    }
+
+    private static boolean containsDigit(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.isDigit(s.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private static int wordCount(String form) {
+        int count = 1;
+        for (int i = 0; i < form.length(); i++) {
+            if (form.charAt(i) == ' ') count++;
+        }
+        return count;
+    }
+
+    /**
+     * Trigram g of "$" + s + "$", packed into an int (normalized text is ASCII)
+     */
+    private static int trigramAt(String s, int g) {
+        char c0 = g == 0 ? PAD : s.charAt(g - 1);
+        char c1 = s.charAt(g);
+        char c2 = g + 1 < s.length() ? s.charAt(g + 1) : PAD;
+        return (c0 & 0xFF) << 16 | (c1 & 0xFF) << 8 | (c2 & 0xFF);
+    }
+}
@@ -0,0 +1,123 @@
+package com.visualguard.finnalproject;
+
+import android.util.Log;
+
+/**
+ * Single-thread inference stage with a one-item, latest-wins input slot
+ * (the same policy as CameraX STRATEGY_KEEP_ONLY_LATEST).
+ * Producers never block: submitting while a frame is still pending replaces it,
+ * and the replaced frame is handed back to the recycler straight away.
+ */
+public class InferenceExecutor<T> {
+    private static final String TAG = "InferenceExecutor";
+
+    public interface Stage<T> {
+        void process(T item);
+    }
+
+    public interface Recycler<T> {
+        void recycle(T item);
+    }
+
+    private final Stage<T> stage;
+    private final Recycler<T> recycler;
+    private final Thread thread;
+    private final Object lock = new Object();
+
+    private T pending;
+    private boolean stopped = false;
+    private Runnable finalTask;
+    private long droppedCount = 0;
+
+    public InferenceExecutor(String name, Stage<T> stage, Recycler<T> recycler) {
+        this.stage = stage;
+        this.recycler = recycler;
+        this.thread = new Thread(this::runLoop, name);
+        this.thread.start();
+    }
+
+    /**
+     * Offer a frame for inference. Returns false if the executor has been shut down,
+     * in which case the item is recycled immediately.
+     */
+    public boolean submit(T item) {
+        T dropped;
+        synchronized (lock) {
+            if (stopped) {
+                dropped = item;
+            } else {
+                dropped = pending;
+                pending = item;
+                if (dropped != null) droppedCount++;
+                lock.notifyAll();
+            }
+        }
+        if (dropped != null) {
+            recycler.recycle(dropped);
+        }
+        return dropped != item;
+    }
+
+    /**
+     * Number of frames replaced before inference could pick them up
+     */
+    public long getDroppedCount() {
+        synchronized (lock) {
+            return droppedCount;
+        }
+    }
+
+    /**
+     * Stop accepting frames. The frame currently being processed is allowed to finish,
+     * then finalTask (if any) runs on the inference thread, e.g. to close the model.
+     */
+    public void shutdown(Runnable finalTask) {
+        T dropped;
+        synchronized (lock) {
+            if (stopped) return;
+            stopped = true;
+            this.finalTask = finalTask;
+            dropped = pending;
+            pending = null;
+            lock.notifyAll();
+        }
+        if (dropped != null) {
+            recycler.recycle(dropped);
+        }
+    }
+
+    private void runLoop() {
+        while (true) {
+            T item;
+            synchronized (lock) {
+                while (pending == null && !stopped) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        stopped = true;
+                    }
+                }
+                if (stopped) break;
+                item = pending;
+                pending = null;
+            }
+
+            try {
+                stage.process(item);
+            } catch (Exception e) {
+                Log.e(TAG, "Inference stage failed", e);
+            } finally {
+                recycler.recycle(item);
+            }
+        }
+
+        Runnable task;
+        synchronized (lock) {
+            task = finalTask;
+        }
+        if (task != null) {
+            task.run();
+        }
+    }
+}
@@ -5,9 +5,18 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.Log;
 
 import androidx.annotation.Nullable;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -15,13 +24,39 @@ import java.util.Locale;
 import java.util.Map;
 
 public class IngredientDbHelper extends SQLiteOpenHelper {
+    private static final String TAG = "IngredientDbHelper";
 
     private static final String DATABASE_NAME = "ingredients.db";
-    private static final int DATABASE_VERSION = 1;
+    // 2: e_number, severity and synonyms columns for bulk-imported datasets
+    // 3: alias table mapping synonyms and E-numbers to the canonical ingredient
+    private static final int DATABASE_VERSION = 3;
 
     public static final String TABLE_NAME = "ingredients";
     public static final String COLUMN_NAME = "name";
     public static final String COLUMN_EFFECTS = "harmful_effects";
+    public static final String COLUMN_E_NUMBER = "e_number";
+    public static final String COLUMN_SEVERITY = "severity";
+    public static final String COLUMN_SYNONYMS = "synonyms";
+
+    public static final String ALIAS_TABLE_NAME = "ingredient_aliases";
+    public static final String COLUMN_ALIAS = "alias";
+    public static final String COLUMN_INGREDIENT = "ingredient";
+
+    // Rows between progress callbacks during bulk import
+    private static final int PROGRESS_INTERVAL = 500;
+
+    public interface ImportProgressListener {
+        void onProgress(int imported, int total);
+    }
+
+    /**
+     * Notified after every write, e.g. so IngredientRepository can reload its snapshot
+     */
+    public interface ChangeListener {
+        void onIngredientsChanged();
+    }
+
+    private volatile ChangeListener changeListener;
 
     public IngredientDbHelper(@Nullable Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
@@ -31,7 +66,11 @@ public class IngredientDbHelper extends SQLiteOpenHelper {
     public void onCreate(SQLiteDatabase db) {
         db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " ("
                 + COLUMN_NAME + " TEXT PRIMARY KEY COLLATE NOCASE, "
-                + COLUMN_EFFECTS + " TEXT)");
+                + COLUMN_EFFECTS + " TEXT, "
+                + COLUMN_E_NUMBER + " TEXT, "
+                + COLUMN_SEVERITY + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_SYNONYMS + " TEXT)");
+        createAliasTable(db);
 
         insertIfNotExists(db, "Sugar", "May increase blood sugar");
         insertIfNotExists(db, "Trans fat", "Raises bad cholesterol");
@@ -47,15 +86,68 @@ public class IngredientDbHelper extends SQLiteOpenHelper {
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // simple migration: add column if missing (works for this small demo)
         if (oldVersion < 2) {
-            try {
-                db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COLUMN_EFFECTS + " TEXT");
-            } catch (Exception ignored) {}
-            // optionally fill default values for existing rows (left as exercise)
+            // Existing rows keep their name and effects; the new fields start empty
+            db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COLUMN_E_NUMBER + " TEXT");
+            db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COLUMN_SEVERITY
+                    + " INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COLUMN_SYNONYMS + " TEXT");
+        }
+        if (oldVersion < 3) {
+            createAliasTable(db);
+            aliasesFromColumns(db);
+        }
+    }
+
+    private void createAliasTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + ALIAS_TABLE_NAME + " ("
+                + COLUMN_ALIAS + " TEXT PRIMARY KEY COLLATE NOCASE, "
+                + COLUMN_INGREDIENT + " TEXT NOT NULL COLLATE NOCASE)");
+    }
+
+    /**
+     * Fill the alias table from the synonyms and e_number columns of existing rows
+     */
+    private void aliasesFromColumns(SQLiteDatabase db) {
+        SQLiteStatement insertAlias = compileAliasInsert(db);
+        Cursor c = db.query(TABLE_NAME, new String[]{COLUMN_NAME, COLUMN_E_NUMBER, COLUMN_SYNONYMS},
+                null, null, null, null, null);
+        try {
+            while (c.moveToNext()) {
+                String name = c.getString(0);
+                if (name == null) continue;
+                bindAliases(insertAlias, name, c.getString(1),
+                        IngredientRecord.splitSynonyms(c.getString(2)));
+            }
+        } finally {
+            c.close();
+            insertAlias.close();
         }
     }
 
+    private static SQLiteStatement compileAliasInsert(SQLiteDatabase db) {
+        return db.compileStatement("INSERT OR REPLACE INTO " + ALIAS_TABLE_NAME + " ("
+                + COLUMN_ALIAS + ", " + COLUMN_INGREDIENT + ") VALUES (?, ?)");
+    }
+
+    private static void bindAliases(SQLiteStatement insertAlias, String name, @Nullable String eNumber,
+                                    List<String> synonyms) {
+        if (eNumber != null && !eNumber.trim().isEmpty()) {
+            bindAlias(insertAlias, eNumber.trim(), name);
+        }
+        for (String synonym : synonyms) {
+            bindAlias(insertAlias, synonym, name);
+        }
+    }
+
+    private static void bindAlias(SQLiteStatement insertAlias, String alias, String name) {
+        if (alias.equalsIgnoreCase(name)) return;
+        insertAlias.clearBindings();
+        insertAlias.bindString(1, alias);
+        insertAlias.bindString(2, name);
+        insertAlias.executeInsert();
+    }
+
     private void insertIfNotExists(SQLiteDatabase db, String name, String effects) {
         ContentValues v = new ContentValues();
         v.put(COLUMN_NAME, name);
@@ -63,12 +155,174 @@ public class IngredientDbHelper extends SQLiteOpenHelper {
         db.insertWithOnConflict(TABLE_NAME, null, v, SQLiteDatabase.CONFLICT_IGNORE);
     }
 
+    /**
+     * Set the effects of an ingredient, adding it if it is new. Updated in place rather
+     * than replaced, so the E-number, severity and synonyms of an imported row are kept.
+     */
     public void insertOrUpdate(String name, String effects) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            ContentValues v = new ContentValues();
+            v.put(COLUMN_EFFECTS, effects);
+            int updated = db.update(TABLE_NAME, v, COLUMN_NAME + " = ?", new String[]{name});
+            if (updated == 0) {
+                insertIfNotExists(db, name, effects);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        notifyChanged();
+    }
+
+    /**
+     * Map another surface form (synonym, E-number, label spelling) to an ingredient
+     */
+    public void insertAlias(String alias, String ingredientName) {
         SQLiteDatabase db = getWritableDatabase();
         ContentValues v = new ContentValues();
-        v.put(COLUMN_NAME, name);
-        v.put(COLUMN_EFFECTS, effects);
-        db.insertWithOnConflict(TABLE_NAME, null, v, SQLiteDatabase.CONFLICT_REPLACE);
+        v.put(COLUMN_ALIAS, alias);
+        v.put(COLUMN_INGREDIENT, ingredientName);
+        db.insertWithOnConflict(ALIAS_TABLE_NAME, null, v, SQLiteDatabase.CONFLICT_REPLACE);
+        notifyChanged();
+    }
+
+    /**
+     * Insert or replace many records in a single transaction using one compiled
+     * statement per table; synonyms and E-numbers also go into the alias table.
+     * Listeners are notified once, after the commit. Returns the number of rows written.
+     */
+    public int bulkImport(List<IngredientRecord> records, @Nullable ImportProgressListener progress) {
+        SQLiteDatabase db = getWritableDatabase();
+        SQLiteStatement insert = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_NAME + " ("
+                + COLUMN_NAME + ", " + COLUMN_EFFECTS + ", " + COLUMN_E_NUMBER + ", "
+                + COLUMN_SEVERITY + ", " + COLUMN_SYNONYMS + ") VALUES (?, ?, ?, ?, ?)");
+        SQLiteStatement insertAlias = compileAliasInsert(db);
+        int total = records.size();
+        int imported = 0;
+
+        db.beginTransaction();
+        try {
+            for (IngredientRecord record : records) {
+                insert.clearBindings();
+                insert.bindString(1, record.name);
+                insert.bindString(2, record.effects);
+                if (record.eNumber != null) {
+                    insert.bindString(3, record.eNumber);
+                } else {
+                    insert.bindNull(3);
+                }
+                insert.bindLong(4, record.severity);
+                if (!record.synonyms.isEmpty()) {
+                    insert.bindString(5, joinSynonyms(record.synonyms));
+                } else {
+                    insert.bindNull(5);
+                }
+                insert.executeInsert();
+                bindAliases(insertAlias, record.name, record.eNumber, record.synonyms);
+
+                imported++;
+                if (progress != null && imported % PROGRESS_INTERVAL == 0) {
+                    progress.onProgress(imported, total);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            insert.close();
+            insertAlias.close();
+        }
+
+        if (progress != null) {
+            progress.onProgress(imported, total);
+        }
+        Log.d(TAG, "Imported " + imported + " ingredients");
+        notifyChanged();
+        return imported;
+    }
+
+    /**
+     * Import a dataset bundled in assets. Files ending in .json hold an array of objects
+     * with the IngredientRecord.FIELD_* keys (synonyms as a string or an array); anything
+     * else is read as CSV with a header row.
+     */
+    public int importFromAsset(Context context, String assetName,
+                               @Nullable ImportProgressListener progress) throws IOException {
+        List<IngredientRecord> records;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                context.getAssets().open(assetName), StandardCharsets.UTF_8))) {
+            records = assetName.toLowerCase(Locale.ROOT).endsWith(".json")
+                    ? readJson(reader) : IngredientRecord.readCsv(reader);
+        }
+        return bulkImport(records, progress);
+    }
+
+    private static List<IngredientRecord> readJson(Reader in) throws IOException {
+        List<IngredientRecord> records = new ArrayList<>();
+        JsonReader reader = new JsonReader(in);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String name = null;
+            List<String> synonyms = new ArrayList<>();
+            String eNumber = null;
+            String effects = null;
+            int severity = 0;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.skipValue();
+                    continue;
+                }
+                switch (field) {
+                    case IngredientRecord.FIELD_NAME:
+                        name = reader.nextString();
+                        break;
+                    case IngredientRecord.FIELD_SYNONYMS:
+                        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            reader.beginArray();
+                            while (reader.hasNext()) synonyms.add(reader.nextString());
+                            reader.endArray();
+                        } else {
+                            synonyms = IngredientRecord.splitSynonyms(reader.nextString());
+                        }
+                        break;
+                    case IngredientRecord.FIELD_E_NUMBER:
+                        eNumber = reader.nextString();
+                        break;
+                    case IngredientRecord.FIELD_EFFECTS:
+                        effects = reader.nextString();
+                        break;
+                    case IngredientRecord.FIELD_SEVERITY:
+                        severity = IngredientRecord.parseSeverity(reader.nextString());
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (name != null && !name.trim().isEmpty()) {
+                records.add(new IngredientRecord(name.trim(), synonyms, eNumber, effects, severity));
+            }
+        }
+        reader.endArray();
+        return records;
+    }
+
+    private static String joinSynonyms(List<String> synonyms) {
+        StringBuilder sb = new StringBuilder();
+        for (String synonym : synonyms) {
+            if (sb.length() > 0) sb.append(IngredientRecord.SYNONYM_SEPARATOR);
+            sb.append(synonym);
+        }
+        return sb.toString();
+    }
+
+    public void setChangeListener(@Nullable ChangeListener listener) {
+        this.changeListener = listener;
     }
 
     public List<String> getAllIngredients() {
@@ -85,38 +339,51 @@ public class IngredientDbHelper extends SQLiteOpenHelper {
         return list;
     }
 
-    public Map<String, String> findMatchesWithEffects(String text) {
-        Map<String, String> found = new LinkedHashMap<>();
-        if (text == null || text.trim().isEmpty()) return found;
-
-        String lower = normalize(text);
+    /**
+     * Every ingredient name with its effects text, in table order
+     */
+    public Map<String, String> getAllEffects() {
+        Map<String, String> effects = new LinkedHashMap<>();
         SQLiteDatabase db = getReadableDatabase();
         Cursor c = db.query(TABLE_NAME, new String[]{COLUMN_NAME, COLUMN_EFFECTS},
                 null, null, null, null, null);
         try {
             while (c.moveToNext()) {
                 String name = c.getString(0);
-                String effects = c.getString(1);
                 if (name == null) continue;
-                String nname = normalize(name);
-                if (nname.isEmpty()) continue;
-                if (lower.contains(nname) || lower.matches(".*\\b" + java.util.regex.Pattern.quote(nname) + "\\b.*")) {
-                    found.put(name, effects != null ? effects : "");
-                }
+                String effect = c.getString(1);
+                effects.put(name, effect != null ? effect : "");
+            }
+        } finally {
+            c.close();
+        }
+        return effects;
+    }
+
+    /**
+     * Every alias mapped to the canonical name as spelled in the ingredients table.
+     * Aliases of ingredients that no longer exist are left out.
+     */
+    public Map<String, String> getAllAliases() {
+        Map<String, String> aliases = new LinkedHashMap<>();
+        SQLiteDatabase db = getReadableDatabase();
+        Cursor c = db.rawQuery("SELECT a." + COLUMN_ALIAS + ", i." + COLUMN_NAME
+                + " FROM " + ALIAS_TABLE_NAME + " a JOIN " + TABLE_NAME + " i"
+                + " ON a." + COLUMN_INGREDIENT + " = i." + COLUMN_NAME, null);
+        try {
+            while (c.moveToNext()) {
+                aliases.put(c.getString(0), c.getString(1));
             }
         } finally {
             c.close();
         }
-        return found;
+        return aliases;
     }
 
-    private String normalize(String s) {
-        if (s == null) return "";
-        String t = s.toLowerCase(Locale.ROOT).trim();
-        t = java.text.Normalizer.normalize(t, java.text.Normalizer.Form.NFD)
-                .replaceAll("\\p{M}", "");
-        t = t.replaceAll("[^a-z0-9\\s]", " ");
-        return t.replaceAll("\\s+", " ").trim();
+    private void notifyChanged() {
+        ChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.onIngredientsChanged();
+        }
     }
 }
-
@@ -7,7 +7,6 @@ import android.graphics.Rect;
 import android.graphics.RectF;
 import android.media.Image;
 import android.os.Bundle;
-import android.speech.tts.TextToSpeech;
 import android.util.Log;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
@@ -27,11 +26,11 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.mlkit.vision.common.InputImage;
 import com.google.mlkit.vision.text.Text;
 import com.google.mlkit.vision.text.TextRecognition;
+import com.google.mlkit.vision.text.TextRecognizer;
 import com.google.mlkit.vision.text.latin.TextRecognizerOptions;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -40,16 +39,30 @@ public class IngredientDetectActivity extends AppCompatActivity {
     private static final int REQ_CAMERA = 2001;
     private PreviewView previewView;
     private OverlayView overlayView;
-    private TextToSpeech tts;
+    private SpeechService speech;
     private ExecutorService cameraExecutor;
-    private IngredientDbHelper dbHelper;
+    private TextRecognizer textRecognizer;
+    private IngredientRepository ingredientRepository;
 
     private final java.util.Map<String, Integer> consecutiveCount = new java.util.HashMap<>();
     private final java.util.Map<String, Long> lastSpokenAt = new java.util.HashMap<>();
     private static final int REQUIRED_FRAMES = 3;
     private static final long COOLDOWN_MS = 10_000L;
+    // A warning still waiting after this long is about a label no longer in view
+    private static final long WARNING_MAX_DELAY_MS = 10_000L;
+    // Keys of everything this screen says about ingredients, to cancel it on leaving
+    private static final String SPEECH_KEY_PREFIX = "ingredient:";
     private GestureDetector gestureDetector;
 
+    // Whole-label mode (double tap): lines are stitched across frames and matched once stable
+    private static final int LABEL_STABLE_FRAMES = 4;
+    private static final int LABEL_MAX_LINES = 200;
+    private final LabelDocumentAccumulator labelDocument =
+            new LabelDocumentAccumulator(LABEL_STABLE_FRAMES, LABEL_MAX_LINES);
+    private final java.util.Set<String> labelAnnounced = new java.util.HashSet<>();
+    private boolean wholeLabelMode = false;
+    private final OcrLineOrder lineOrder = new OcrLineOrder();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -58,18 +71,16 @@ public class IngredientDetectActivity extends AppCompatActivity {
         previewView = findViewById(R.id.previewView);
         overlayView = findViewById(R.id.overlayView);
 
-        dbHelper = new IngredientDbHelper(this);
+        // Loads the ingredient table into memory in the background
+        ingredientRepository = IngredientRepository.getInstance(this);
 
         gestureDetector = new GestureDetector(this, new IngredientGestureListener());
 
-        tts = new TextToSpeech(this, status -> {
-            if (status == TextToSpeech.SUCCESS) {
-                tts.setLanguage(Locale.ENGLISH);
-                speak("Please scan the ingredient label");
-            }
-        });
+        speech = SpeechService.getInstance(this);
+        speakFeedback("Please scan the ingredient label");
 
         cameraExecutor = Executors.newSingleThreadExecutor();
+        textRecognizer = TextRecognition.getClient(TextRecognizerOptions.DEFAULT_OPTIONS);
 
         if (ContextCompat.checkSelfPermission(this, Manifest.permission.CAMERA) != PackageManager.PERMISSION_GRANTED) {
             ActivityCompat.requestPermissions(this, new String[]{Manifest.permission.CAMERA}, REQ_CAMERA);
@@ -87,6 +98,12 @@ public class IngredientDetectActivity extends AppCompatActivity {
         private static final int SWIPE_THRESHOLD = 100;
         private static final int SWIPE_VELOCITY_THRESHOLD = 100;
 
+        @Override
+        public boolean onDoubleTap(MotionEvent e) {
+            setWholeLabelMode(!wholeLabelMode);
+            return true;
+        }
+
         @Override
         public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
             if (e1 == null || e2 == null) return false;
@@ -95,12 +112,12 @@ public class IngredientDetectActivity extends AppCompatActivity {
 
             if (Math.abs(diffX) > SWIPE_THRESHOLD && Math.abs(velocityX) > SWIPE_VELOCITY_THRESHOLD) {
                 if (diffX < 0) { // Swipe left - chuyển sang TextDetection
-                    speak("Opening text reading mode");
+                    speakFeedback("Opening text reading mode");
                     Intent intent = new Intent(IngredientDetectActivity.this, TextDetectionActivity.class);
                     startActivity(intent);
                     return true;
                 } else if (diffX > 0) { // Swipe right - quay về Home
-                    speak("Returning to main menu");
+                    speakFeedback("Returning to main menu");
                     finish();
                     return true;
                 }
@@ -143,13 +160,17 @@ public class IngredientDetectActivity extends AppCompatActivity {
                             InputImage inputImage = InputImage.fromMediaImage(mediaImage,
                                     imageProxy.getImageInfo().getRotationDegrees());
 
-                            TextRecognition.getClient(TextRecognizerOptions.DEFAULT_OPTIONS)
-                                    .process(inputImage)
+                            textRecognizer.process(inputImage)
                                     .addOnSuccessListener(text -> {
                                         List<Text.TextBlock> blocks = text.getTextBlocks();
                                         List<RectF> mapped = mapBlocksToView(blocks, imageProxy);
                                         runOnUiThread(() -> overlayView.setRects(mapped));
 
+                                        if (wholeLabelMode) {
+                                            accumulateLabel(text);
+                                            return;
+                                        }
+
                                         int viewW = previewView.getWidth();
                                         int viewH = previewView.getHeight();
                                         if (viewW == 0 || viewH == 0) {
@@ -180,7 +201,7 @@ public class IngredientDetectActivity extends AppCompatActivity {
                                             if (area < viewArea * 0.002f) continue; // ignore tiny boxes (<0.2% of view)
 
                                             String blockText = block.getText();
-                                            java.util.Map<String, String> matches = dbHelper.findMatchesWithEffects(blockText);
+                                            java.util.Map<String, String> matches = ingredientRepository.findMatchesWithEffects(blockText, true);
                                             if (matches != null && !matches.isEmpty()) {
                                                 for (String name : matches.keySet()) {
                                                     candidates.add(name);
@@ -210,21 +231,7 @@ public class IngredientDetectActivity extends AppCompatActivity {
                                         }
 
                                         if (!toSpeakNow.isEmpty()) {
-                                            StringBuilder sb = new StringBuilder();
-                                            boolean first = true;
-                                            for (String s : toSpeakNow) {
-                                                // get effects text if any
-                                                java.util.Map<String, String> map = dbHelper.findMatchesWithEffects(s);
-                                                String effects = "";
-                                                if (map != null && map.containsKey(s)) effects = map.get(s);
-                                                if (!first) sb.append(". ");
-                                                sb.append(s);
-                                                if (effects != null && !effects.isEmpty()) {
-                                                    sb.append(": ").append(effects);
-                                                }
-                                                first = false;
-                                            }
-                                            speak(sb.toString());
+                                            speakIngredients(toSpeakNow);
                                         }
                                     })
                                     .addOnFailureListener(e -> Log.e("TextDetect", "OCR failed", e))
@@ -246,6 +253,54 @@ public class IngredientDetectActivity extends AppCompatActivity {
         }, ContextCompat.getMainExecutor(this));
     }
 
+    /**
+     * Whole-label mode: collect every line of the frame, in reading order, into the
+     * label document and match only once the document has stopped growing
+     */
+    private void accumulateLabel(Text text) {
+        for (Text.Line line : lineOrder.linesInReadingOrder(text)) {
+            labelDocument.addLine(line.getText());
+        }
+        if (!labelDocument.endFrame()) return;
+
+        java.util.Map<String, String> matches =
+                ingredientRepository.findMatchesWithEffects(labelDocument.getDocumentText(), true);
+        List<String> newMatches = new ArrayList<>();
+        for (String name : matches.keySet()) {
+            if (labelAnnounced.add(name)) newMatches.add(name);
+        }
+        Log.d("TextDetect", "Label document: " + labelDocument.lineCount() + " lines, "
+                + matches.size() + " ingredients");
+
+        if (!newMatches.isEmpty()) {
+            speakIngredients(newMatches);
+        } else if (labelAnnounced.isEmpty()) {
+            speak("Label read. No listed ingredients found");
+        }
+    }
+
+    private void setWholeLabelMode(boolean enabled) {
+        wholeLabelMode = enabled;
+        labelDocument.reset();
+        labelAnnounced.clear();
+        consecutiveCount.clear();
+        speakFeedback(enabled ? "Whole label mode. Move the camera slowly over the entire label"
+                : "Center scan mode");
+    }
+
+    /**
+     * One utterance per ingredient, keyed by name, so an ingredient found again while its
+     * warning is still waiting is said once
+     */
+    private void speakIngredients(List<String> names) {
+        for (String name : names) {
+            String effects = ingredientRepository.getEffects(name);
+            String text = (effects != null && !effects.isEmpty()) ? name + ": " + effects : name;
+            speech.speak(text, Utterance.Priority.INFO, Utterance.DEFAULT_RATE,
+                    SPEECH_KEY_PREFIX + name, WARNING_MAX_DELAY_MS);
+        }
+    }
+
     private List<RectF> mapBlocksToView(List<Text.TextBlock> blocks, ImageProxy imageProxy) {
         List<RectF> out = new ArrayList<>();
         if (blocks == null || blocks.isEmpty()) return out;
@@ -286,16 +341,26 @@ public class IngredientDetectActivity extends AppCompatActivity {
     }
 
     private void speak(String text) {
-        if (tts != null) {
-            tts.speak(text, TextToSpeech.QUEUE_ADD, null, "tts-id");
-        }
+        speech.speak(text, Utterance.Priority.INFO, Utterance.DEFAULT_RATE,
+                SPEECH_KEY_PREFIX + text, WARNING_MAX_DELAY_MS);
+    }
+
+    private void speakFeedback(String text) {
+        speech.speak(text, Utterance.Priority.NAVIGATION);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // Warnings about a label no longer in view would run into the next screen's speech
+        speech.cancel(SPEECH_KEY_PREFIX);
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (tts != null) { tts.stop(); tts.shutdown(); }
         if (cameraExecutor != null) cameraExecutor.shutdown();
+        if (textRecognizer != null) textRecognizer.close();
     }
 
     @Override
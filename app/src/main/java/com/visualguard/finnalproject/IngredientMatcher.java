@@ -0,0 +1,225 @@
+package com.visualguard.finnalproject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aho-Corasick automaton over normalized ingredient names. Finds every whole-word
+ * occurrence of every name in one pass over the text, independent of how many
+ * names the dictionary holds. Aliases (synonyms, E-numbers) are compiled into the
+ * same automaton and reported under their canonical name, so they add no per-frame
+ * cost. Immutable once built, so it can be shared between threads.
+ */
+public class IngredientMatcher {
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    // Trie edges as linked lists per node: nodeFirstEdge -> edgeNext -> ...
+    private int[] nodeFirstEdge;
+    private int[] edgeChar;
+    private int[] edgeTarget;
+    private int[] edgeNext;
+    private int nodeCount;
+    private int edgeCount;
+
+    private int[] fail;
+    // Pattern ending at this node, or NONE
+    private int[] nodePattern;
+    // Nearest node on the fail chain that ends a pattern, or NONE
+    private int[] outputLink;
+
+    // Canonical name and normalized length per pattern
+    private final List<String> names = new ArrayList<>();
+    private final List<Integer> patternLengths = new ArrayList<>();
+    private int canonicalCount;
+
+    /**
+     * @param names canonical ingredient names, reported as given
+     */
+    public IngredientMatcher(Collection<String> names) {
+        this(names, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * @param names   canonical ingredient names, reported as given
+     * @param aliases other surface forms mapped to their canonical name; an alias that
+     *                normalizes to the same text as a canonical name is ignored
+     */
+    public IngredientMatcher(Collection<String> names, Map<String, String> aliases) {
+        nodeFirstEdge = new int[64];
+        nodePattern = new int[64];
+        edgeChar = new int[64];
+        edgeTarget = new int[64];
+        edgeNext = new int[64];
+        Arrays.fill(nodeFirstEdge, NONE);
+        Arrays.fill(nodePattern, NONE);
+        nodeCount = 1;
+
+        for (String name : names) {
+            addPattern(name, name);
+        }
+        canonicalCount = this.names.size();
+        for (Map.Entry<String, String> alias : aliases.entrySet()) {
+            addPattern(alias.getKey(), alias.getValue());
+            String spaced = spacedENumber(alias.getKey());
+            if (spaced != null) {
+                addPattern(spaced, alias.getValue());
+            }
+        }
+        buildLinks();
+    }
+
+    /**
+     * Number of canonical names
+     */
+    public int size() {
+        return canonicalCount;
+    }
+
+    /**
+     * Number of surface forms in the automaton, canonical names included
+     */
+    public int patternCount() {
+        return this.names.size();
+    }
+
+    /**
+     * Canonical names found as whole words in text, in order of first occurrence
+     */
+    public Set<String> match(String text) {
+        Set<String> found = new LinkedHashSet<>();
+        if (text == null) return found;
+        TextNormalizer normalizer = TextNormalizer.forCurrentThread();
+        int length = normalizer.normalize(text);
+        char[] normalized = normalizer.buffer();
+
+        int state = ROOT;
+        for (int i = 0; i < length; i++) {
+            state = step(state, normalized[i]);
+
+            for (int node = nodePattern[state] != NONE ? state : outputLink[state];
+                 node != NONE; node = outputLink[node]) {
+                int pattern = nodePattern[node];
+                int start = i - patternLengths.get(pattern) + 1;
+                // Whole words only: normalized text separates words with single spaces
+                if ((start == 0 || normalized[start - 1] == ' ')
+                        && (i + 1 == length || normalized[i + 1] == ' ')) {
+                    found.add(this.names.get(pattern));
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * OCR often splits E-numbers ("E 322"), so "E322" is also added in that form
+     */
+    private static String spacedENumber(String alias) {
+        String t = alias.trim();
+        if (t.length() < 2 || Character.toLowerCase(t.charAt(0)) != 'e'
+                || !Character.isDigit(t.charAt(1))) {
+            return null;
+        }
+        for (int i = 2; i < t.length(); i++) {
+            if (!Character.isLetterOrDigit(t.charAt(i))) return null;
+        }
+        return t.charAt(0) + " " + t.substring(1);
+    }
+
+    private void addPattern(String surfaceForm, String name) {
+        if (surfaceForm == null || name == null) return;
+        String pattern = TextNormalizer.normalizeToString(surfaceForm);
+        if (pattern.isEmpty()) return;
+
+        int node = ROOT;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            int next = child(node, c);
+            if (next == NONE) {
+                next = newNode();
+                addEdge(node, c, next);
+            }
+            node = next;
+        }
+        // Two forms with the same normalization: keep the first, canonical names come first
+        if (nodePattern[node] != NONE) return;
+        nodePattern[node] = this.names.size();
+        this.names.add(name);
+        patternLengths.add(pattern.length());
+    }
+
+    /**
+     * Breadth-first pass computing fail and output links
+     */
+    private void buildLinks() {
+        fail = new int[nodeCount];
+        outputLink = new int[nodeCount];
+        Arrays.fill(outputLink, NONE);
+
+        int[] queue = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        for (int e = nodeFirstEdge[ROOT]; e != NONE; e = edgeNext[e]) {
+            fail[edgeTarget[e]] = ROOT;
+            queue[tail++] = edgeTarget[e];
+        }
+
+        while (head < tail) {
+            int node = queue[head++];
+            for (int e = nodeFirstEdge[node]; e != NONE; e = edgeNext[e]) {
+                int target = edgeTarget[e];
+                int f = step(fail[node], (char) edgeChar[e]);
+                fail[target] = f;
+                outputLink[target] = nodePattern[f] != NONE ? f : outputLink[f];
+                queue[tail++] = target;
+            }
+        }
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int next = child(state, c);
+            if (next != NONE) return next;
+            if (state == ROOT) return ROOT;
+            state = fail[state];
+        }
+    }
+
+    private int child(int node, char c) {
+        for (int e = nodeFirstEdge[node]; e != NONE; e = edgeNext[e]) {
+            if (edgeChar[e] == c) return edgeTarget[e];
+        }
+        return NONE;
+    }
+
+    private int newNode() {
+        if (nodeCount == nodeFirstEdge.length) {
+            int capacity = nodeCount * 2;
+            nodeFirstEdge = Arrays.copyOf(nodeFirstEdge, capacity);
+            nodePattern = Arrays.copyOf(nodePattern, capacity);
+            Arrays.fill(nodeFirstEdge, nodeCount, capacity, NONE);
+            Arrays.fill(nodePattern, nodeCount, capacity, NONE);
+        }
+        return nodeCount++;
+    }
+
+    private void addEdge(int node, char c, int target) {
+        if (edgeCount == edgeChar.length) {
+            int capacity = edgeCount * 2;
+            edgeChar = Arrays.copyOf(edgeChar, capacity);
+            edgeTarget = Arrays.copyOf(edgeTarget, capacity);
+            edgeNext = Arrays.copyOf(edgeNext, capacity);
+        }
+        edgeChar[edgeCount] = c;
+        edgeTarget[edgeCount] = target;
+        edgeNext[edgeCount] = nodeFirstEdge[node];
+        nodeFirstEdge[node] = edgeCount;
+        edgeCount++;
+    }
+}
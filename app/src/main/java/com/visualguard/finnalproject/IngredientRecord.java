@@ -0,0 +1,143 @@
+package com.visualguard.finnalproject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One row of an ingredient dataset as maintained by the dietitians, before it is
+ * written with IngredientDbHelper.bulkImport()
+ */
+public class IngredientRecord {
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_SYNONYMS = "synonyms";
+    public static final String FIELD_E_NUMBER = "e_number";
+    public static final String FIELD_EFFECTS = "effects";
+    public static final String FIELD_SEVERITY = "severity";
+
+    // Separator for several synonyms in one CSV cell
+    public static final char SYNONYM_SEPARATOR = '|';
+
+    public final String name;
+    public final List<String> synonyms;
+    public final String eNumber;      // null if none
+    public final String effects;
+    public final int severity;        // 0 = informational ... 3 = dangerous
+
+    public IngredientRecord(String name, List<String> synonyms, String eNumber,
+                            String effects, int severity) {
+        this.name = name;
+        this.synonyms = synonyms != null ? synonyms : Collections.<String>emptyList();
+        this.eNumber = eNumber;
+        this.effects = effects != null ? effects : "";
+        this.severity = severity;
+    }
+
+    /**
+     * Read a CSV file with a header row. Columns are found by name (see FIELD_*),
+     * so they may come in any order and all but name are optional. Quoted cells may
+     * contain commas and doubled quotes, but not line breaks.
+     */
+    public static List<IngredientRecord> readCsv(BufferedReader reader) throws IOException {
+        List<IngredientRecord> records = new ArrayList<>();
+        String headerLine = reader.readLine();
+        if (headerLine == null) return records;
+
+        List<String> header = splitCsvLine(stripBom(headerLine));
+        int nameCol = header.indexOf(FIELD_NAME);
+        if (nameCol < 0) {
+            throw new IOException("CSV has no '" + FIELD_NAME + "' column");
+        }
+        int synonymsCol = header.indexOf(FIELD_SYNONYMS);
+        int eNumberCol = header.indexOf(FIELD_E_NUMBER);
+        int effectsCol = header.indexOf(FIELD_EFFECTS);
+        int severityCol = header.indexOf(FIELD_SEVERITY);
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) continue;
+            List<String> cells = splitCsvLine(line);
+            String name = cell(cells, nameCol);
+            if (name == null) continue;
+
+            records.add(new IngredientRecord(name,
+                    splitSynonyms(cell(cells, synonymsCol)),
+                    cell(cells, eNumberCol),
+                    cell(cells, effectsCol),
+                    parseSeverity(cell(cells, severityCol))));
+        }
+        return records;
+    }
+
+    public static List<String> splitSynonyms(String value) {
+        List<String> synonyms = new ArrayList<>();
+        if (value == null) return synonyms;
+        int start = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            if (i == value.length() || value.charAt(i) == SYNONYM_SEPARATOR) {
+                String synonym = value.substring(start, i).trim();
+                if (!synonym.isEmpty()) synonyms.add(synonym);
+                start = i + 1;
+            }
+        }
+        return synonyms;
+    }
+
+    public static int parseSeverity(String value) {
+        if (value == null) return 0;
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "low": return 1;
+            case "medium": return 2;
+            case "high": return 3;
+            default:
+                try {
+                    return Math.max(0, Math.min(3, Integer.parseInt(value.trim())));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+        }
+    }
+
+    static List<String> splitCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+
+    private static String cell(List<String> cells, int index) {
+        if (index < 0 || index >= cells.size()) return null;
+        String value = cells.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '﻿' ? line.substring(1) : line;
+    }
+}
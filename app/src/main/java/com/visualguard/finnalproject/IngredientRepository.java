@@ -0,0 +1,159 @@
+package com.visualguard.finnalproject;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory view of the ingredient table for scanning. The table is read on a
+ * background thread into an immutable snapshot (effects by name plus the matcher),
+ * so lookups from the OCR callback never touch SQLite. Writes through the
+ * IngredientDbHelper trigger a reload; the previous snapshot keeps serving until
+ * the new one is ready.
+ */
+public class IngredientRepository implements IngredientDbHelper.ChangeListener {
+    private static final String TAG = "IngredientRepository";
+
+    private static IngredientRepository instance;
+
+    private static class Snapshot {
+        final Map<String, String> effectsByName;
+        final IngredientMatcher matcher;
+        final FuzzyIngredientIndex fuzzyIndex;
+
+        Snapshot(Map<String, String> effectsByName, Map<String, String> aliases) {
+            this.effectsByName = effectsByName;
+            this.matcher = new IngredientMatcher(effectsByName.keySet(), aliases);
+            this.fuzzyIndex = new FuzzyIngredientIndex(effectsByName.keySet(), aliases);
+        }
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(Collections.<String, String>emptyMap(),
+            Collections.<String, String>emptyMap());
+
+    private final IngredientDbHelper dbHelper;
+    private final ExecutorService loader;
+    private final AtomicBoolean reloadPending = new AtomicBoolean(false);
+    private volatile Snapshot snapshot = EMPTY;
+    private volatile boolean loaded = false;
+
+    private IngredientRepository(Context context) {
+        this.dbHelper = new IngredientDbHelper(context.getApplicationContext());
+        this.loader = Executors.newSingleThreadExecutor(r -> new Thread(r, "IngredientLoader"));
+        dbHelper.setChangeListener(this);
+    }
+
+    public static synchronized IngredientRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new IngredientRepository(context);
+            instance.reload();
+        }
+        return instance;
+    }
+
+    /**
+     * Database access for writes; every write reloads the snapshot
+     */
+    public IngredientDbHelper getDbHelper() {
+        return dbHelper;
+    }
+
+    /**
+     * Write off the calling thread
+     */
+    public void insertOrUpdate(String name, String effects) {
+        loader.execute(() -> dbHelper.insertOrUpdate(name, effects));
+    }
+
+    /**
+     * Bulk import a bundled dataset off the calling thread; progress is reported on the
+     * loader thread and the snapshot reloads once the import has committed
+     */
+    public void importAsset(Context context, String assetName,
+                            IngredientDbHelper.ImportProgressListener progress) {
+        Context appContext = context.getApplicationContext();
+        loader.execute(() -> {
+            try {
+                dbHelper.importFromAsset(appContext, assetName, progress);
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to import " + assetName, e);
+            }
+        });
+    }
+
+    /**
+     * False until the first snapshot has been loaded; until then nothing matches
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Ingredients mentioned as whole words in text, by name or alias, mapped to
+     * their effects under the canonical name
+     */
+    public Map<String, String> findMatchesWithEffects(String text) {
+        return findMatchesWithEffects(text, false);
+    }
+
+    /**
+     * Same as findMatchesWithEffects(text), and with fuzzy also names misread by OCR
+     * by one character (two for long names)
+     */
+    public Map<String, String> findMatchesWithEffects(String text, boolean fuzzy) {
+        Map<String, String> found = new LinkedHashMap<>();
+        if (text == null || text.trim().isEmpty()) return found;
+
+        Snapshot current = snapshot;
+        for (String name : current.matcher.match(text)) {
+            String effects = current.effectsByName.get(name);
+            found.put(name, effects != null ? effects : "");
+        }
+        if (fuzzy) {
+            for (String name : current.fuzzyIndex.match(text)) {
+                if (found.containsKey(name)) continue;
+                String effects = current.effectsByName.get(name);
+                found.put(name, effects != null ? effects : "");
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Effects text for a canonical ingredient name, or "" if unknown
+     */
+    public String getEffects(String name) {
+        String effects = snapshot.effectsByName.get(name);
+        return effects != null ? effects : "";
+    }
+
+    @Override
+    public void onIngredientsChanged() {
+        reload();
+    }
+
+    private void reload() {
+        // Several writes in a row collapse into one reload
+        if (!reloadPending.compareAndSet(false, true)) return;
+        loader.execute(() -> {
+            reloadPending.set(false);
+            try {
+                long start = System.currentTimeMillis();
+                snapshot = new Snapshot(dbHelper.getAllEffects(), dbHelper.getAllAliases());
+                loaded = true;
+                Log.d(TAG, "Loaded " + snapshot.matcher.size() + " ingredients, "
+                        + snapshot.matcher.patternCount() + " surface forms in "
+                        + (System.currentTimeMillis() - start) + " ms");
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to load ingredients", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package com.visualguard.finnalproject;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stitches OCR lines from consecutive frames into one deduplicated label document,
+ * so a long ingredient list can be matched once as a whole instead of block by block
+ * on every frame. Lines are keyed by their normalized text alone and kept in the order
+ * they were first added, so callers add each frame's lines in reading order. Position is
+ * left out of the key on purpose: the user pans across the label, so the same line lands
+ * at a different place in every frame and a position bucket would add it again each time.
+ *
+ * The document counts as stable once no new line has appeared for stableFrames frames;
+ * endFrame() reports that moment once per change so the caller matches only then.
+ */
+public class LabelDocumentAccumulator {
+    // Lines shorter than this (normalized) are OCR fragments, not label text
+    private static final int MIN_LINE_LENGTH = 3;
+
+    private final int stableFrames;
+    private final int maxLines;
+
+    private final Set<String> seenLines = new HashSet<>();
+    private final List<String> lines = new ArrayList<>();
+    private int frameIndex = 0;
+    private int lastChangeFrame = 0;
+    private boolean changedSinceMatch = false;
+    private String documentText;
+
+    public LabelDocumentAccumulator(int stableFrames, int maxLines) {
+        this.stableFrames = stableFrames;
+        this.maxLines = maxLines;
+    }
+
+    /**
+     * Add one recognized line of the current frame
+     */
+    public void addLine(String text) {
+        if (text == null) return;
+        String normalized = TextNormalizer.normalizeToString(text);
+        if (normalized.length() < MIN_LINE_LENGTH) return;
+
+        if (lines.size() >= maxLines || !seenLines.add(normalized)) return;
+
+        lines.add(normalized);
+        lastChangeFrame = frameIndex;
+        changedSinceMatch = true;
+        documentText = null;
+    }
+
+    /**
+     * Finish the current frame. Returns true when the document has just become stable
+     * with lines that have not been matched yet; the caller should match it now.
+     */
+    public boolean endFrame() {
+        frameIndex++;
+        if (!changedSinceMatch || lines.isEmpty()) return false;
+        if (frameIndex - lastChangeFrame <= stableFrames) return false;
+        changedSinceMatch = false;
+        return true;
+    }
+
+    /**
+     * The accumulated, normalized label text, one line per row
+     */
+    public String getDocumentText() {
+        if (documentText == null) {
+            StringBuilder sb = new StringBuilder();
+            for (String line : lines) {
+                if (sb.length() > 0) sb.append('\n');
+                sb.append(line);
+            }
+            documentText = sb.toString();
+        }
+        return documentText;
+    }
+
+    public int lineCount() {
+        return lines.size();
+    }
+
+    public void reset() {
+        seenLines.clear();
+        lines.clear();
+        frameIndex = 0;
+        lastChangeFrame = 0;
+        changedSinceMatch = false;
+        documentText = null;
+    }
+}
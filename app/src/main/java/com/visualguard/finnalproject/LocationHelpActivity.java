@@ -7,7 +7,6 @@ import android.os.AsyncTask;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
-import android.speech.tts.TextToSpeech;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.widget.TextView;
@@ -19,11 +18,10 @@ import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
-import java.util.Locale;
 
 public class LocationHelpActivity extends AppCompatActivity {
 
-    private TextToSpeech tts;
+    private SpeechService speech;
     private MediaPlayer mediaPlayer;
     private Handler handler;
     private GestureDetector gestureDetector;
@@ -76,25 +74,14 @@ public class LocationHelpActivity extends AppCompatActivity {
     }
 
     private void initializeTTS() {
-        tts = new TextToSpeech(this, new TextToSpeech.OnInitListener() {
-            @Override
-            public void onInit(int status) {
-                if (status == TextToSpeech.SUCCESS) {
-                    tts.setLanguage(Locale.ENGLISH);
-                    tts.setSpeechRate(1.0f);
-
-                    // Immediate TTS announcement
-                    speak("Help signal ready. Swipe up to confirm sending emergency alert in 15 seconds." +
-                            " Swipe down to contact or message.");
-
-                    // Start 15-second countdown
-                    handler.postDelayed(autoCancelRunnable, AUTO_CANCEL_DELAY);
-                } else {
-                    // If TTS fails, still start countdown
-                    handler.postDelayed(autoCancelRunnable, AUTO_CANCEL_DELAY);
-                }
-            }
-        });
+        speech = SpeechService.getInstance(this);
+
+        // Immediate TTS announcement
+        speak("Help signal ready. Swipe up to confirm sending emergency alert in 15 seconds." +
+                " Swipe down to contact or message.");
+
+        // Start 15-second countdown
+        handler.postDelayed(autoCancelRunnable, AUTO_CANCEL_DELAY);
     }
 
     /**
@@ -189,9 +176,8 @@ public class LocationHelpActivity extends AppCompatActivity {
      * Speak text using TTS
      */
     private void speak(String text) {
-        if (tts != null) {
-            tts.speak(text, TextToSpeech.QUEUE_ADD, null, "location-help");
-        }
+        // Emergency instructions are queued in full, never replaced by later ones
+        speech.speak(text, Utterance.Priority.EMERGENCY);
     }
 
     /**
@@ -386,11 +372,6 @@ public class LocationHelpActivity extends AppCompatActivity {
             handler.removeCallbacks(autoCancelRunnable);
         }
 
-        if (tts != null) {
-            tts.stop();
-            tts.shutdown();
-        }
-
         stopBeep();
     }
 }
\ No newline at end of file
@@ -3,17 +3,31 @@ package com.visualguard.finnalproject;
 import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
-import android.speech.tts.TextToSpeech;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import java.util.Locale;
-
 public class MainActivity extends AppCompatActivity {
 
-    private TextToSpeech tts;
+    private static final float SPEECH_RATE = 1.2f;
+    private static final String GREETING = "Welcome. " +
+            "Swipe left once for ingredient scanner, " +
+            "twice for text reader. " +
+            "Swipe right for obstacle detection. " +
+            "Swipe up from bottom for emergency help. " +
+            "Swipe down for status update.";
+    // Spoken on every visit; rendered once so they play without synthesis delay
+    private static final String[] FIXED_PHRASES = {
+            GREETING,
+            "Opening ingredient scanner",
+            "Opening text reader",
+            "Opening obstacle detection",
+            "Opening help signal",
+            "Getting status update",
+    };
+
+    private SpeechService speech;
     private GestureDetector gestureDetector;
     private StatusManager statusManager;
 
@@ -27,16 +41,16 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        tts = new TextToSpeech(this, status -> {
-            if (status == TextToSpeech.SUCCESS) {
-                tts.setLanguage(Locale.ENGLISH);
-                tts.setSpeechRate(1.2f);
-                speakGreeting();
-            }
-        });
+        speech = SpeechService.getInstance(this);
+        for (String phrase : FIXED_PHRASES) {
+            speech.prepare(phrase, SPEECH_RATE);
+        }
 
         statusManager = new StatusManager(this);
         gestureDetector = new GestureDetector(this, new GestureListener());
+
+        // Load the obstacle model in the background so obstacle mode opens without a stall
+        DetectorHolder.getInstance(this).warmUp(DetectorConfig.load(this));
     }
 
     @Override
@@ -135,29 +149,16 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void speakGreeting() {
-        String greeting = "Welcome. " +
-                "Swipe left once for ingredient scanner, " +
-                "twice for text reader. " +
-                "Swipe right for obstacle detection. " +
-                "Swipe up from bottom for emergency help. " +
-                "Swipe down for status update.";
-        speak(greeting);
+        speak(GREETING);
     }
 
     private void speak(String text) {
-        if (tts != null) {
-            tts.speak(text, TextToSpeech.QUEUE_FLUSH, null, "main-tts");
-        }
+        speech.speak(text, Utterance.Priority.NAVIGATION, SPEECH_RATE);
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (tts != null) {
-            tts.stop();
-            tts.shutdown();
-            tts = null;
-        }
         if (statusManager != null) {
             statusManager.shutdown();
             statusManager = null;
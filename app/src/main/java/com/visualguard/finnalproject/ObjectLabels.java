@@ -0,0 +1,60 @@
+package com.visualguard.finnalproject;
+
+import android.content.Context;
+
+import org.tensorflow.lite.support.common.FileUtil;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Label table from assets/labels.txt. Each label is resolved to its line index once,
+ * so per-frame code passes int ids around instead of Strings.
+ */
+public class ObjectLabels {
+    public static final String ASSET_NAME = "labels.txt";
+    public static final int UNKNOWN = -1;
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+
+    public ObjectLabels(List<String> labels) {
+        names = new String[labels.size()];
+        ids = new HashMap<>(labels.size() * 2);
+        for (int i = 0; i < labels.size(); i++) {
+            String name = labels.get(i).trim().toLowerCase(Locale.ROOT);
+            names[i] = name;
+            if (!ids.containsKey(name)) {
+                ids.put(name, i);
+            }
+        }
+    }
+
+    public static ObjectLabels fromAsset(Context context) throws IOException {
+        return new ObjectLabels(FileUtil.loadLabels(context, ASSET_NAME));
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Id of a label as reported by the model, or UNKNOWN. Model labels are already
+     * lower case, so the common path is a single hash lookup without allocation.
+     */
+    public int idOf(String label) {
+        if (label == null) return UNKNOWN;
+        Integer id = ids.get(label);
+        if (id == null) {
+            id = ids.get(label.toLowerCase(Locale.ROOT));
+        }
+        return id != null ? id : UNKNOWN;
+    }
+
+    public String nameOf(int id) {
+        return id >= 0 && id < names.length ? names[id] : "";
+    }
+}
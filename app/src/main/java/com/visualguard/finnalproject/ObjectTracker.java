@@ -0,0 +1,330 @@
+package com.visualguard.finnalproject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IoU / centroid multi-object tracker that sits between the detector output and
+ * ObstacleDetectorManager. Gives each object a stable track id, smooths its box,
+ * estimates its velocity and lets short detector drop-outs coast instead of
+ * resetting state. Consumes and produces DetectionFrames in model input coordinates.
+ * Not thread-safe: update() and the returned tracks belong to the inference thread.
+ */
+public class ObjectTracker {
+
+    public static final int MAX_TRACKS = 16;
+    public static final float IOU_MATCH_THRESHOLD = 0.3f;
+    public static final float CENTROID_MATCH_FRACTION = 0.5f; // of the track's larger side
+    public static final int MAX_MISSES = 5;               // frames a track may coast unmatched
+    public static final long MAX_PREDICTION_MS = 500;     // how far boxes are extrapolated
+    private static final float BOX_SMOOTHING = 0.6f;      // weight of the new measurement
+    private static final float VELOCITY_SMOOTHING = 0.5f;
+    public static final int AREA_HISTORY_SIZE = 8;        // measurements kept per track for TTC
+    private static final long MIN_TTC_SPAN_MS = 200;      // history must cover at least this long
+
+    /**
+     * One tracked object
+     */
+    public static class Track {
+        public int id;
+        public int labelId;
+        public float score;
+
+        // Smoothed box
+        public float left, top, right, bottom;
+        // Centre velocity in pixels per millisecond
+        public float velocityX, velocityY;
+
+        public int age;    // frames since the track was created
+        public int hits;   // frames the track was matched to a detection
+        public int misses; // consecutive frames without a match
+        public long firstSeen;
+        public long lastSeen;
+        // Volatile: cleared from the speech thread when an alert is dropped unsaid
+        public volatile long lastAnnouncedTime;
+
+        // Ring buffer of ln(measured box area) and its timestamps, used for time-to-collision
+        final float[] logAreaHistory = new float[AREA_HISTORY_SIZE];
+        final long[] timeHistory = new long[AREA_HISTORY_SIZE];
+        int historyCount;
+        int historyIndex;
+
+        public float centerX() {
+            return (left + right) / 2f;
+        }
+
+        public float centerY() {
+            return (top + bottom) / 2f;
+        }
+
+        public float width() {
+            return right - left;
+        }
+
+        public float height() {
+            return bottom - top;
+        }
+
+        /**
+         * Rate of box-area growth in 1/ms: slope of a least-squares fit of ln(area) over time.
+         * Positive means the object is getting bigger on screen, i.e. closer.
+         */
+        public float areaGrowthRate() {
+            if (historyCount < 3) return 0f;
+
+            int oldest = (historyIndex - historyCount + AREA_HISTORY_SIZE) % AREA_HISTORY_SIZE;
+            int newest = (historyIndex - 1 + AREA_HISTORY_SIZE) % AREA_HISTORY_SIZE;
+            long t0 = timeHistory[oldest];
+            if (timeHistory[newest] - t0 < MIN_TTC_SPAN_MS) return 0f;
+
+            float sumT = 0f, sumA = 0f, sumTT = 0f, sumTA = 0f;
+            for (int i = 0; i < historyCount; i++) {
+                int index = (oldest + i) % AREA_HISTORY_SIZE;
+                float t = timeHistory[index] - t0;
+                float a = logAreaHistory[index];
+                sumT += t;
+                sumA += a;
+                sumTT += t * t;
+                sumTA += t * a;
+            }
+            float denominator = historyCount * sumTT - sumT * sumT;
+            if (denominator <= 0f) return 0f;
+            return (historyCount * sumTA - sumT * sumA) / denominator;
+        }
+
+        /**
+         * Estimated time until the object reaches the camera, in ms.
+         * Apparent area scales with 1 / distance^2, so d(ln area)/dt = 2 / TTC.
+         * Returns Float.POSITIVE_INFINITY when the object is not approaching.
+         */
+        public float timeToCollisionMs() {
+            float growth = areaGrowthRate();
+            if (growth <= 1e-6f) return Float.POSITIVE_INFINITY;
+            return 2f / growth;
+        }
+
+        void recordArea(float area, long timestamp) {
+            logAreaHistory[historyIndex] = (float) Math.log(Math.max(area, 1f));
+            timeHistory[historyIndex] = timestamp;
+            historyIndex = (historyIndex + 1) % AREA_HISTORY_SIZE;
+            if (historyCount < AREA_HISTORY_SIZE) historyCount++;
+        }
+    }
+
+    private final Track[] pool = new Track[MAX_TRACKS];
+    private final List<Track> active = new ArrayList<>(MAX_TRACKS);
+    private final List<Track> free = new ArrayList<>(MAX_TRACKS);
+    private int nextId = 1;
+
+    // Per-frame scratch space, grown only if the detector returns more results
+    private boolean[] detectionMatched = new boolean[8];
+    private boolean[] trackMatched = new boolean[MAX_TRACKS];
+
+    public ObjectTracker() {
+        for (int i = 0; i < MAX_TRACKS; i++) {
+            pool[i] = new Track();
+            free.add(pool[i]);
+        }
+    }
+
+    /**
+     * Feed one frame of detections.
+     *
+     * @return the live list of active tracks, valid until the next update
+     */
+    public List<Track> update(DetectionFrame detections) {
+        int count = detections.size();
+        long timestamp = detections.getTimestamp();
+        if (detectionMatched.length < count) {
+            detectionMatched = new boolean[count];
+        }
+        for (int d = 0; d < count; d++) detectionMatched[d] = false;
+        for (int t = 0; t < active.size(); t++) trackMatched[t] = false;
+
+        // Greedy assignment: repeatedly take the best remaining (track, detection) pair
+        while (true) {
+            int bestTrack = -1;
+            int bestDetection = -1;
+            float bestScore = 0f;
+
+            for (int t = 0; t < active.size(); t++) {
+                if (trackMatched[t]) continue;
+                Track track = active.get(t);
+                for (int d = 0; d < count; d++) {
+                    if (detectionMatched[d]) continue;
+                    if (track.labelId != detections.labelId(d)) continue;
+                    float score = matchScore(track, detections, d);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        bestTrack = t;
+                        bestDetection = d;
+                    }
+                }
+            }
+
+            if (bestTrack < 0) break;
+            trackMatched[bestTrack] = true;
+            detectionMatched[bestDetection] = true;
+            applyMeasurement(active.get(bestTrack), detections, bestDetection, timestamp);
+        }
+
+        // Age unmatched tracks, dropping those that have coasted for too long
+        for (int t = active.size() - 1; t >= 0; t--) {
+            Track track = active.get(t);
+            if (trackMatched[t]) continue;
+            track.age++;
+            track.misses++;
+            if (track.misses > MAX_MISSES) {
+                active.remove(t);
+                free.add(track);
+            }
+        }
+
+        // Start tracks for detections nobody claimed
+        for (int d = 0; d < count; d++) {
+            if (detectionMatched[d]) continue;
+            Track track = obtainTrack();
+            if (track == null) break;
+            startTrack(track, detections, d, timestamp);
+            active.add(track);
+        }
+
+        return active;
+    }
+
+    /**
+     * Immutable frame of the active tracks (smoothed boxes, ids, velocities),
+     * safe to hand to another thread
+     */
+    public DetectionFrame toFrame() {
+        int count = active.size();
+        if (count == 0) return DetectionFrame.EMPTY;
+
+        float[] boxes = new float[count * 4];
+        int[] labelIds = new int[count];
+        float[] scores = new float[count];
+        int[] trackIds = new int[count];
+        float[] velocities = new float[count * 2];
+        long[] seenAt = new long[count];
+        long lastSeen = 0;
+
+        for (int i = 0; i < count; i++) {
+            Track track = active.get(i);
+            boxes[i * 4] = track.left;
+            boxes[i * 4 + 1] = track.top;
+            boxes[i * 4 + 2] = track.right;
+            boxes[i * 4 + 3] = track.bottom;
+            labelIds[i] = track.labelId;
+            scores[i] = track.score;
+            trackIds[i] = track.id;
+            velocities[i * 2] = track.velocityX;
+            velocities[i * 2 + 1] = track.velocityY;
+            seenAt[i] = track.lastSeen;
+            lastSeen = Math.max(lastSeen, track.lastSeen);
+        }
+        return new DetectionFrame(count, boxes, labelIds, scores, trackIds, velocities, seenAt, lastSeen);
+    }
+
+    public List<Track> getTracks() {
+        return active;
+    }
+
+    public void reset() {
+        free.addAll(active);
+        active.clear();
+    }
+
+    /**
+     * IoU when boxes overlap enough, otherwise a small score for nearby centroids so
+     * fast-moving or resized objects keep their identity
+     */
+    private float matchScore(Track track, DetectionFrame detections, int d) {
+        float l = detections.left(d), t = detections.top(d), r = detections.right(d), b = detections.bottom(d);
+
+        float iw = Math.min(track.right, r) - Math.max(track.left, l);
+        float ih = Math.min(track.bottom, b) - Math.max(track.top, t);
+        if (iw > 0 && ih > 0) {
+            float intersection = iw * ih;
+            float union = track.width() * track.height() + (r - l) * (b - t) - intersection;
+            float iou = union > 0 ? intersection / union : 0f;
+            if (iou >= IOU_MATCH_THRESHOLD) return iou;
+        }
+
+        float dx = (l + r) / 2f - track.centerX();
+        float dy = (t + b) / 2f - track.centerY();
+        float limit = Math.max(track.width(), track.height()) * CENTROID_MATCH_FRACTION;
+        float distanceSq = dx * dx + dy * dy;
+        if (limit > 0 && distanceSq < limit * limit) {
+            // Always ranks below any IoU match
+            return IOU_MATCH_THRESHOLD * (1f - (float) Math.sqrt(distanceSq) / limit) * 0.5f;
+        }
+        return 0f;
+    }
+
+    private void applyMeasurement(Track track, DetectionFrame detections, int d, long timestamp) {
+        float l = detections.left(d), t = detections.top(d), r = detections.right(d), b = detections.bottom(d);
+
+        // Raw measured area feeds the TTC fit, the regression does the smoothing
+        track.recordArea((r - l) * (b - t), timestamp);
+
+        float oldCenterX = track.centerX();
+        float oldCenterY = track.centerY();
+
+        track.left += (l - track.left) * BOX_SMOOTHING;
+        track.top += (t - track.top) * BOX_SMOOTHING;
+        track.right += (r - track.right) * BOX_SMOOTHING;
+        track.bottom += (b - track.bottom) * BOX_SMOOTHING;
+
+        long dt = timestamp - track.lastSeen;
+        if (dt > 0) {
+            float vx = (track.centerX() - oldCenterX) / dt;
+            float vy = (track.centerY() - oldCenterY) / dt;
+            track.velocityX += (vx - track.velocityX) * VELOCITY_SMOOTHING;
+            track.velocityY += (vy - track.velocityY) * VELOCITY_SMOOTHING;
+        }
+
+        track.score = detections.score(d);
+        track.age++;
+        track.hits++;
+        track.misses = 0;
+        track.lastSeen = timestamp;
+    }
+
+    private void startTrack(Track track, DetectionFrame detections, int d, long timestamp) {
+        track.id = nextId++;
+        track.labelId = detections.labelId(d);
+        track.score = detections.score(d);
+        track.left = detections.left(d);
+        track.top = detections.top(d);
+        track.right = detections.right(d);
+        track.bottom = detections.bottom(d);
+        track.velocityX = 0f;
+        track.velocityY = 0f;
+        track.age = 1;
+        track.hits = 1;
+        track.misses = 0;
+        track.firstSeen = timestamp;
+        track.lastSeen = timestamp;
+        track.lastAnnouncedTime = 0;
+        track.historyCount = 0;
+        track.historyIndex = 0;
+        track.recordArea(track.width() * track.height(), timestamp);
+    }
+
+    /**
+     * A free track, or the coasting track with the most misses when the pool is full
+     */
+    private Track obtainTrack() {
+        if (!free.isEmpty()) {
+            return free.remove(free.size() - 1);
+        }
+        int worst = -1;
+        for (int t = 0; t < active.size(); t++) {
+            Track track = active.get(t);
+            if (track.misses > 0 && (worst < 0 || track.misses > active.get(worst).misses)) {
+                worst = t;
+            }
+        }
+        return worst >= 0 ? active.remove(worst) : null;
+    }
+}
@@ -5,12 +5,16 @@ import android.content.Context;
 import android.content.pm.PackageManager;
 import android.graphics.*;
 import android.hardware.camera2.*;
+import android.hardware.camera2.params.StreamConfigurationMap;
+import android.media.Image;
+import android.media.ImageReader;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.HandlerThread;
-import android.speech.tts.TextToSpeech;
 import android.util.Log;
 import android.util.Size;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
 import android.view.Surface;
 import android.view.TextureView;
 import android.widget.TextView;
@@ -20,17 +24,11 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
 
-import org.tensorflow.lite.support.common.FileUtil;
-import org.tensorflow.lite.support.image.ImageProcessor;
-import org.tensorflow.lite.support.image.TensorImage;
-import org.tensorflow.lite.support.image.ops.ResizeOp;
+import org.tensorflow.lite.support.label.Category;
 import org.tensorflow.lite.task.vision.detector.Detection;
-import org.tensorflow.lite.task.vision.detector.ObjectDetector;
 
-import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Locale;
 
 public class ObstacleDetectionActivity extends AppCompatActivity {
     private static final String TAG = "ObstacleDetection";
@@ -44,16 +42,44 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
     private Handler backgroundHandler;
     private CameraManager cameraManager;
 
-    private ObjectDetector objectDetector;
-    private TextToSpeech tts;
+    // Analysis stream: YUV frames delivered on their own thread, separate from the preview
+    private ImageReader imageReader;
+    private HandlerThread analysisThread;
+    private Handler analysisHandler;
+    private int sensorOrientation = 90;
+
+    private DetectorHolder detectorHolder;
+    private static final float SPEECH_RATE = 0.9f;
+    // An alert that cannot start within this time describes a scene that has moved on
+    private static final long ALERT_MAX_DELAY_MS = 1500;
+    private static final String ALERT_KEY_PREFIX = "track:";
+    private static final String STARTED_MESSAGE = "Indoor object detection started. I will announce objects around you.";
+    private static final String CAMERA_READY_MESSAGE = "Camera ready. Object detection is now active.";
+    private static final String RESUMED_MESSAGE = "Resuming object detection";
+
+    // Earcon mode (double tap): tones for direction and distance, the object on a single tap
+    private static final String PREFS_NAME = "obstacle_feedback";
+    private static final String KEY_EARCON_MODE = "earcon_mode";
+    private volatile boolean earconMode = false;
+    private volatile EarconPlayer earconPlayer;
+    private volatile ObstacleDetectorManager.DetectionResult lastCued;
+    private GestureDetector gestureDetector;
+    private SpeechService speech;
+    private boolean paused = false;
     private ObstacleDetectorManager obstacleManager;
-    private ImageProcessor imageProcessor;
+    // Set on the main thread once the detector is ready, read on the analysis thread
+    private volatile DetectorInputPool inputPool;
+    private volatile InferenceExecutor<DetectorInputPool.Slot> inferenceExecutor;
+    private final FrameRateGovernor frameRateGovernor = new FrameRateGovernor();
+    private final ObjectTracker objectTracker = new ObjectTracker();
+    private ObjectLabels objectLabels;
 
     // Model configuration
-    private static final int MODEL_INPUT_SIZE = 480;
-    private long lastProcessingTime = 0;
-    private static final long PROCESSING_INTERVAL = 150; // ms between processing frames
-    private boolean isDetectionActive = false;
+    private DetectorConfig detectorConfig;
+    private int modelInputSize; // frames are resized to modelInputSize x modelInputSize
+    // One slot being filled, one waiting in the executor, one in inference
+    private static final int INPUT_POOL_SIZE = 3;
+    private volatile boolean isDetectionActive = false;
 
     // For bounding box scaling
     private float scaleFactorX = 1.0f;
@@ -65,9 +91,54 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
         setContentView(R.layout.activity_obstacle_detection);
 
         initializeViews();
+        gestureDetector = new GestureDetector(this, new FeedbackGestureListener());
+        earconMode = getSharedPreferences(PREFS_NAME, MODE_PRIVATE).getBoolean(KEY_EARCON_MODE, false);
+        if (earconMode) {
+            earconPlayer = new EarconPlayer();
+        }
         getPermission();
     }
 
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return gestureDetector.onTouchEvent(event) || super.onTouchEvent(event);
+    }
+
+    private class FeedbackGestureListener extends GestureDetector.SimpleOnGestureListener {
+        @Override
+        public boolean onDoubleTap(MotionEvent e) {
+            setEarconMode(!earconMode);
+            return true;
+        }
+
+        @Override
+        public boolean onSingleTapConfirmed(MotionEvent e) {
+            // Speech on demand: what the last tone was about
+            if (!earconMode) return false;
+            ObstacleDetectorManager.DetectionResult cued = lastCued;
+            speak(cued != null ? cued.spokenMessage : "No object yet");
+            return true;
+        }
+    }
+
+    private void setEarconMode(boolean enabled) {
+        earconMode = enabled;
+        getSharedPreferences(PREFS_NAME, MODE_PRIVATE).edit()
+                .putBoolean(KEY_EARCON_MODE, enabled)
+                .apply();
+        if (obstacleManager != null) {
+            obstacleManager.setEarconMode(enabled);
+        }
+        if (enabled && earconPlayer == null) {
+            earconPlayer = new EarconPlayer();
+        } else if (!enabled && earconPlayer != null) {
+            earconPlayer.release();
+            earconPlayer = null;
+        }
+        lastCued = null;
+        speak(enabled ? "Tone mode. Tap to hear the last object" : "Speech mode");
+    }
+
     private void initializeViews() {
         textureView = findViewById(R.id.textureView);
         statusText = findViewById(R.id.statusText);
@@ -77,43 +148,18 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
     }
 
     private void initializeComponents() {
-        // Initialize TTS for English
-        tts = new TextToSpeech(this, status -> {
-            if (status == TextToSpeech.SUCCESS) {
-                tts.setLanguage(Locale.ENGLISH);
-                tts.setSpeechRate(0.9f);
-                speak("Indoor object detection started. I will announce objects around you.");
-            } else {
-                Log.e(TAG, "TTS initialization failed");
-            }
-        });
-
-        obstacleManager = new ObstacleDetectorManager(this);
-
-        // Initialize image processor
-        imageProcessor = new ImageProcessor.Builder()
-                .add(new ResizeOp(MODEL_INPUT_SIZE, MODEL_INPUT_SIZE, ResizeOp.ResizeMethod.BILINEAR))
-                .build();
-
-        // Load TensorFlow Lite model
-        try {
-            ObjectDetector.ObjectDetectorOptions options = ObjectDetector.ObjectDetectorOptions.builder()
-                    .setMaxResults(5)
-                    .setScoreThreshold(0.4f)
-                    .build();
-
-            objectDetector = ObjectDetector.createFromFileAndOptions(
-                    this,
-                    "efficientdet-lite1.tflite",
-                    options
-            );
-            Log.d(TAG, "Object detection model loaded successfully");
-        } catch (IOException e) {
-            Log.e(TAG, "Failed to load model", e);
-            Toast.makeText(this, "Object detection model failed to load", Toast.LENGTH_LONG).show();
-            finish();
-            return;
-        }
+        speech = SpeechService.getInstance(this);
+        // Live the first time; from the phrase cache on later visits
+        speech.prepare(STARTED_MESSAGE, SPEECH_RATE);
+        speech.prepare(CAMERA_READY_MESSAGE, SPEECH_RATE);
+        speech.prepare(RESUMED_MESSAGE, SPEECH_RATE);
+        speak(STARTED_MESSAGE);
+
+        // Persisted (or intent-overridden) configuration; size the camera stream for it now
+        DetectorConfig config = DetectorConfig.load(this).withOverrides(getIntent());
+        config.save(this);
+        detectorConfig = config;
+        modelInputSize = config.getEffectiveInputSize();
 
         // Start background handler thread
         HandlerThread handlerThread = new HandlerThread("CameraBackground");
@@ -122,7 +168,54 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
 
         cameraManager = (CameraManager) getSystemService(Context.CAMERA_SERVICE);
 
+        // The model is usually already warm from MainActivity; frames are dropped until it is ready
+        updateStatus("Loading object detection model");
+        detectorHolder = DetectorHolder.getInstance(this);
+        detectorHolder.acquire(config, new DetectorHolder.Callback() {
+            @Override
+            public void onReady(DetectorConfig loadedConfig, ObjectLabels labels) {
+                if (isFinishing() || isDestroyed()) return;
+                onDetectorReady(loadedConfig, labels);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Failed to load model", e);
+                if (isFinishing() || isDestroyed()) return;
+                Toast.makeText(ObstacleDetectionActivity.this,
+                        "Object detection model failed to load", Toast.LENGTH_LONG).show();
+                finish();
+            }
+        });
+
         isDetectionActive = true;
+    }
+
+    private void onDetectorReady(DetectorConfig config, ObjectLabels labels) {
+        detectorConfig = config;
+        modelInputSize = config.getEffectiveInputSize();
+        updateScaleFactors(textureView.getWidth(), textureView.getHeight());
+
+        // Label ids are resolved once by the holder; per-frame code only passes ids around
+        objectLabels = labels;
+        boundingBoxOverlay.setLabels(objectLabels);
+        obstacleManager = new ObstacleDetectorManager(this, objectLabels);
+        obstacleManager.setEarconMode(earconMode);
+        // Alerts are played from these clips once rendered, so none waits for synthesis
+        for (String fragment : obstacleManager.getPhraseFragments()) {
+            speech.prepare(fragment, SPEECH_RATE);
+        }
+
+        // Pre-allocated model inputs, filled in place from each camera frame
+        inputPool = new DetectorInputPool(modelInputSize, INPUT_POOL_SIZE);
+
+        // Frame cadence follows measured inference time, thermal state and battery saver
+        frameRateGovernor.attach(this);
+
+        // Inference runs on its own thread and always takes the most recent frame
+        inferenceExecutor = new InferenceExecutor<>("ObstacleInference",
+                this::processFrame, inputPool::release);
+
         updateStatus("Detection active - scanning for objects");
     }
 
@@ -146,119 +239,151 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
 
         @Override
         public void onSurfaceTextureUpdated(SurfaceTexture surface) {
-            if (isDetectionActive && System.currentTimeMillis() - lastProcessingTime > PROCESSING_INTERVAL) {
-                processFrame();
-                lastProcessingTime = System.currentTimeMillis();
-            }
+            // Frames for detection come from the ImageReader; only move the tracked boxes here
+            boundingBoxOverlay.onPreviewFrame();
         }
     };
 
+    private final ImageReader.OnImageAvailableListener onImageAvailableListener = reader -> {
+        Image image = reader.acquireLatestImage();
+        if (image == null) return;
+
+        long now = System.currentTimeMillis();
+        if (!isDetectionActive || inferenceExecutor == null || !frameRateGovernor.isFrameDue(now)) {
+            image.close();
+            return;
+        }
+
+        DetectorInputPool.Slot slot = inputPool.acquire();
+        if (slot == null) {
+            image.close();
+            return;
+        }
+        // The period starts only once the frame has a buffer, so a drop here retries next frame
+        frameRateGovernor.startFrame(now);
+        try {
+            inputPool.fill(slot, image, sensorOrientation);
+        } finally {
+            // Hand the buffer back to the camera as soon as the pixels are copied
+            image.close();
+        }
+        // Replaces any frame still waiting, so inference never works on stale input
+        inferenceExecutor.submit(slot);
+    };
+
     private void updateScaleFactors(int viewWidth, int viewHeight) {
-        // Calculate scale factors to convert from model coordinates (480x480) to view coordinates
-        scaleFactorX = (float) viewWidth / MODEL_INPUT_SIZE;
-        scaleFactorY = (float) viewHeight / MODEL_INPUT_SIZE;
+        if (modelInputSize <= 0) return; // detector not configured yet
+
+        // Calculate scale factors to convert from model coordinates to view coordinates
+        scaleFactorX = (float) viewWidth / modelInputSize;
+        scaleFactorY = (float) viewHeight / modelInputSize;
 
         Log.d(TAG, String.format("Scale factors - X: %.2f, Y: %.2f", scaleFactorX, scaleFactorY));
     }
 
-    private void processFrame() {
-        Bitmap bitmap = textureView.getBitmap();
-        if (bitmap == null) return;
-
+    private void processFrame(DetectorInputPool.Slot slot) {
         try {
-            // Store original dimensions for scaling
-            int originalWidth = bitmap.getWidth();
-            int originalHeight = bitmap.getHeight();
+            // Tracks are mapped onto the preview, so scale against the view size
+            int originalWidth = textureView.getWidth();
+            int originalHeight = textureView.getHeight();
 
             // Update scale factors if needed (should be done in texture size changed, but just in case)
             if (scaleFactorX == 1.0f || scaleFactorY == 1.0f) {
                 updateScaleFactors(originalWidth, originalHeight);
             }
 
-            // Convert to TensorImage and process
-            TensorImage image = TensorImage.fromBitmap(bitmap);
-            image = imageProcessor.process(image);
-
-            // Run object detection
-            List<Detection> detections = objectDetector.detect(image);
+            // Run object detection on the pooled, already resized input
+            long inferenceStart = System.currentTimeMillis();
+            List<Detection> detections = detectorHolder.detect(slot.getTensorImage());
+            frameRateGovernor.recordInference(System.currentTimeMillis() - inferenceStart);
 
-            // Scale bounding boxes to match original image size
-            List<Detection> scaledDetections = scaleBoundingBoxes(detections, originalWidth, originalHeight);
+            // Associate detections with existing tracks (model coordinates)
+            long currentTime = System.currentTimeMillis();
+            List<ObjectTracker.Track> tracks = objectTracker.update(toDetectionFrame(detections, currentTime));
 
-            // Update bounding box overlay with scaled detections
-            boundingBoxOverlay.setDetections(scaledDetections);
+            // Overlay extrapolates the tracks between detector results
+            final DetectionFrame trackedFrame = objectTracker.toFrame();
+            final float scaleX = scaleFactorX;
+            final float scaleY = scaleFactorY;
+            runOnUiThread(() -> boundingBoxOverlay.setFrame(trackedFrame, scaleX, scaleY));
 
-            // Process for voice announcements (use original detections for analysis)
-            processDetectionsForSpeech(detections, originalWidth, originalHeight);
+            // Announcement decisions are made per track
+            processTracksForSpeech(tracks, currentTime);
 
         } catch (Exception e) {
             Log.e(TAG, "Error processing frame", e);
         }
     }
 
-    private List<Detection> scaleBoundingBoxes(List<Detection> detections, int originalWidth, int originalHeight) {
-        if (detections == null) return detections;
-
-        for (Detection detection : detections) {
-            RectF boundingBox = detection.getBoundingBox();
-
-            // Scale bounding box from model coordinates (480x480) to original image coordinates
-            float left = boundingBox.left * scaleFactorX;
-            float top = boundingBox.top * scaleFactorY;
-            float right = boundingBox.right * scaleFactorX;
-            float bottom = boundingBox.bottom * scaleFactorY;
-
-            // Create new scaled bounding box
-            RectF scaledBoundingBox = new RectF(left, top, right, bottom);
-
-            // Use reflection to set the scaled bounding box (since Detection class doesn't have setter)
-            try {
-                java.lang.reflect.Field field = detection.getClass().getDeclaredField("boundingBox");
-                field.setAccessible(true);
-                field.set(detection, scaledBoundingBox);
-            } catch (Exception e) {
-                Log.e(TAG, "Failed to scale bounding box", e);
-            }
+    /**
+     * Convert detector output into a compact frame with label ids, the only place
+     * TFLite Detection objects are read
+     */
+    private DetectionFrame toDetectionFrame(List<Detection> detections, long timestamp) {
+        if (detections == null || detections.isEmpty()) {
+            return new DetectionFrame(0, new float[0], new int[0], new float[0], timestamp);
         }
 
-        return detections;
-    }
+        int size = detections.size();
+        float[] boxes = new float[size * 4];
+        int[] labelIds = new int[size];
+        float[] scores = new float[size];
 
-    private void processDetectionsForSpeech(List<Detection> detections, int width, int height) {
-        if (detections == null || detections.isEmpty()) return;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            Detection detection = detections.get(i);
+            if (detection.getCategories() == null || detection.getCategories().isEmpty()) continue;
 
-        long currentTime = System.currentTimeMillis();
-        ObstacleDetectorManager.DetectionResult bestResult = null;
-        float maxPriority = 0;
+            Category category = detection.getCategories().get(0);
+            int labelId = objectLabels.idOf(category.getLabel());
+            if (labelId == ObjectLabels.UNKNOWN) continue;
+
+            RectF boundingBox = detection.getBoundingBox();
+            boxes[count * 4] = boundingBox.left;
+            boxes[count * 4 + 1] = boundingBox.top;
+            boxes[count * 4 + 2] = boundingBox.right;
+            boxes[count * 4 + 3] = boundingBox.bottom;
+            labelIds[count] = labelId;
+            scores[count] = category.getScore();
+            count++;
+        }
+        return new DetectionFrame(count, boxes, labelIds, scores, timestamp);
+    }
 
-        for (Detection detection : detections) {
-            if (detection.getCategories() != null && !detection.getCategories().isEmpty()) {
-                String objectName = detection.getCategories().get(0).getLabel();
-                float confidence = detection.getCategories().get(0).getScore();
-                RectF boundingBox = detection.getBoundingBox();
+    private void processTracksForSpeech(List<ObjectTracker.Track> tracks, long currentTime) {
+        if (tracks.isEmpty()) return;
 
-                // Use original coordinates for speech analysis (model coordinates)
-                float originalCenterX = boundingBox.centerX() / scaleFactorX;
-                float originalCenterY = boundingBox.centerY() / scaleFactorY;
+        // Score every track without allocating, then build a message only for the winner
+        ObjectTracker.Track bestTrack = null;
+        int maxPriority = 0;
 
-                ObstacleDetectorManager.DetectionResult result =
-                        obstacleManager.analyzeDetection(objectName, confidence,
-                                originalCenterX, originalCenterY,
-                                MODEL_INPUT_SIZE, MODEL_INPUT_SIZE, currentTime);
+        for (int i = 0; i < tracks.size(); i++) {
+            ObjectTracker.Track track = tracks.get(i);
+            int priority = obstacleManager.scoreTrack(track, modelInputSize, modelInputSize, currentTime);
 
-                if (result != null && result.priority > maxPriority) {
-                    maxPriority = result.priority;
-                    bestResult = result;
-                }
+            if (priority > maxPriority) {
+                maxPriority = priority;
+                bestTrack = track;
             }
         }
 
-        if (bestResult != null) {
-            Log.d(TAG, "Voice announcement: " + bestResult.spokenMessage);
-            updateStatus("Detected: " + bestResult.objectName);
-            speak(bestResult.spokenMessage);
-            obstacleManager.updateLastSpokenTime(currentTime);
-            obstacleManager.updateLastSpokenObject(bestResult.objectName);
+        if (bestTrack != null) {
+            ObstacleDetectorManager.DetectionResult announcement = obstacleManager.buildAnnouncement(
+                    bestTrack, maxPriority, modelInputSize, modelInputSize, currentTime);
+            Log.d(TAG, "Voice announcement: " + announcement.spokenMessage);
+            obstacleManager.markAnnounced(bestTrack, currentTime);
+
+            EarconPlayer player = earconPlayer;
+            if (earconMode && player != null) {
+                boolean urgent = announcement.distance < ObstacleDetectorManager.VERY_CLOSE_DISTANCE
+                        || announcement.timeToCollisionMs < ObstacleDetectorManager.TTC_FAST_MS;
+                player.cue(announcement.directionZone, announcement.distance, urgent);
+                lastCued = announcement;
+            } else {
+                // Queued straight from the analysis thread; the status text can wait for the UI
+                speakAlert(announcement, bestTrack, currentTime);
+            }
+            runOnUiThread(() -> updateStatus("Detected: " + announcement.objectName));
         }
     }
 
@@ -266,6 +391,7 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
     private void openCamera() {
         try {
             String cameraId = cameraManager.getCameraIdList()[0];
+            setUpImageReader(cameraId);
 
             cameraManager.openCamera(cameraId, new CameraDevice.StateCallback() {
                 @Override
@@ -294,6 +420,50 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Create the YUV analysis target at the smallest resolution that still covers the model input
+     */
+    private void setUpImageReader(String cameraId) throws CameraAccessException {
+        CameraCharacteristics characteristics = cameraManager.getCameraCharacteristics(cameraId);
+        Integer orientation = characteristics.get(CameraCharacteristics.SENSOR_ORIENTATION);
+        if (orientation != null) {
+            sensorOrientation = orientation;
+        }
+
+        Size analysisSize = new Size(640, 480);
+        StreamConfigurationMap map = characteristics.get(CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP);
+        if (map != null) {
+            analysisSize = chooseAnalysisSize(map.getOutputSizes(ImageFormat.YUV_420_888));
+        }
+
+        analysisThread = new HandlerThread("FrameAnalysis");
+        analysisThread.start();
+        analysisHandler = new Handler(analysisThread.getLooper());
+
+        imageReader = ImageReader.newInstance(analysisSize.getWidth(), analysisSize.getHeight(),
+                ImageFormat.YUV_420_888, 2);
+        imageReader.setOnImageAvailableListener(onImageAvailableListener, analysisHandler);
+
+        Log.d(TAG, "Analysis stream " + analysisSize + ", sensor orientation " + sensorOrientation);
+    }
+
+    private Size chooseAnalysisSize(Size[] sizes) {
+        Size best = null;
+        Size smallest = null;
+        for (Size size : sizes) {
+            long area = (long) size.getWidth() * size.getHeight();
+            if (smallest == null || area < (long) smallest.getWidth() * smallest.getHeight()) {
+                smallest = size;
+            }
+            if (Math.min(size.getWidth(), size.getHeight()) < modelInputSize) continue;
+            if (best == null || area < (long) best.getWidth() * best.getHeight()) {
+                best = size;
+            }
+        }
+        if (best != null) return best;
+        return smallest != null ? smallest : new Size(640, 480);
+    }
+
     private void startCameraPreview() {
         try {
             SurfaceTexture texture = textureView.getSurfaceTexture();
@@ -305,8 +475,9 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
             CaptureRequest.Builder captureRequestBuilder =
                     cameraDevice.createCaptureRequest(CameraDevice.TEMPLATE_PREVIEW);
             captureRequestBuilder.addTarget(surface);
+            captureRequestBuilder.addTarget(imageReader.getSurface());
 
-            cameraDevice.createCaptureSession(Arrays.asList(surface),
+            cameraDevice.createCaptureSession(Arrays.asList(surface, imageReader.getSurface()),
                     new CameraCaptureSession.StateCallback() {
                         @Override
                         public void onConfigured(@NonNull CameraCaptureSession session) {
@@ -314,7 +485,7 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
                                 session.setRepeatingRequest(captureRequestBuilder.build(),
                                         null, backgroundHandler);
                                 updateStatus("Real-time detection active");
-                                speak("Camera ready. Object detection is now active.");
+                                speak(CAMERA_READY_MESSAGE);
                             } catch (CameraAccessException e) {
                                 Log.e(TAG, "Failed to start camera preview", e);
                             }
@@ -370,8 +541,22 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
     }
 
     private void speak(String text) {
-        if (tts != null && !tts.isSpeaking()) {
-            tts.speak(text, TextToSpeech.QUEUE_FLUSH, null, "obstacle_detection");
+        if (speech != null) {
+            speech.speak(text, Utterance.Priority.NAVIGATION, SPEECH_RATE);
+        }
+    }
+
+    /**
+     * Obstacle announcements cut off anything less urgent; a newer one about the same
+     * track replaces one still waiting. An alert that expires behind another one was
+     * never heard, so its track is announced again rather than muted for the repeat window.
+     */
+    private void speakAlert(ObstacleDetectorManager.DetectionResult announcement, ObjectTracker.Track track,
+                            long announcedAt) {
+        if (speech != null) {
+            speech.speak(announcement.spokenMessage, announcement.spokenFragments, Utterance.Priority.SAFETY,
+                    SPEECH_RATE, ALERT_KEY_PREFIX + track.id, ALERT_MAX_DELAY_MS,
+                    dropped -> obstacleManager.unmarkAnnounced(track, announcedAt));
         }
     }
 
@@ -379,8 +564,9 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
     protected void onPause() {
         super.onPause();
         isDetectionActive = false;
-        if (tts != null && tts.isSpeaking()) {
-            tts.stop();
+        paused = true;
+        if (speech != null) {
+            speech.cancel(ALERT_KEY_PREFIX);
         }
     }
 
@@ -388,8 +574,9 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
     protected void onResume() {
         super.onResume();
         isDetectionActive = true;
-        if (tts != null) {
-            speak("Resuming object detection");
+        if (paused) {
+            paused = false;
+            speak(RESUMED_MESSAGE);
         }
     }
 
@@ -398,9 +585,9 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
         super.onDestroy();
         isDetectionActive = false;
 
-        if (tts != null) {
-            tts.stop();
-            tts.shutdown();
+        if (earconPlayer != null) {
+            earconPlayer.release();
+            earconPlayer = null;
         }
 
         if (cameraDevice != null) {
@@ -411,8 +598,19 @@ public class ObstacleDetectionActivity extends AppCompatActivity {
             backgroundHandler.getLooper().quitSafely();
         }
 
-        if (objectDetector != null) {
-            objectDetector.close();
+        if (imageReader != null) {
+            imageReader.close();
+        }
+
+        if (analysisThread != null) {
+            analysisThread.quitSafely();
+        }
+
+        frameRateGovernor.detach();
+
+        // The detector belongs to DetectorHolder and stays warm for the next visit
+        if (inferenceExecutor != null) {
+            inferenceExecutor.shutdown(null);
         }
 
         if (obstacleManager != null) {
@@ -3,8 +3,10 @@ package com.visualguard.finnalproject;
 import android.content.Context;
 import android.util.Log;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 public class ObstacleDetectorManager {
@@ -15,143 +17,250 @@ public class ObstacleDetectorManager {
     public static final long SPEECH_COOLDOWN_MS = 1500; // Reduced cooldown for responsive feedback
     public static final float MIN_OBJECT_SIZE = 0.02f; // Minimum relative size for small objects
 
-    private Set<String> importantObjects;
-    private Set<String> highPriorityObjects;
-    private Set<String> mediumPriorityObjects;
-    private Set<String> smallObjects;
-
-    private long lastSpokenTime = 0;
-    private String lastSpokenObject = "";
-    private int consecutiveSameObjectCount = 0;
-    private static final int MAX_CONSECUTIVE_SAME_OBJECT = 2;
+    // Priority classes, indexed by label id in priorityClass[]
+    public static final byte CLASS_NONE = -1;   // not announced
+    public static final byte CLASS_OTHER = 0;   // important, no specific class
+    public static final byte CLASS_SMALL = 1;
+    public static final byte CLASS_MEDIUM = 2;
+    public static final byte CLASS_HIGH = 3;
+    private static final String[] CLASS_NAMES = {"LOW", "SMALL", "MEDIUM", "HIGH"};
+    private static final int[] CLASS_BASE_PRIORITY = {15, 20, 25, 40};
+
+    // Direction zones: horizontal index * 3 + vertical index
+    private static final String[] HORIZONTAL_ZONES = {"far left", "left", "ahead", "right", "far right"};
+    private static final String[] VERTICAL_ZONES = {"", " above", " below"};
+    private static final String[] DIRECTION_NAMES = new String[HORIZONTAL_ZONES.length * VERTICAL_ZONES.length];
+    static {
+        for (int h = 0; h < HORIZONTAL_ZONES.length; h++) {
+            for (int v = 0; v < VERTICAL_ZONES.length; v++) {
+                DIRECTION_NAMES[h * VERTICAL_ZONES.length + v] = HORIZONTAL_ZONES[h] + VERTICAL_ZONES[v];
+            }
+        }
+    }
 
-    public ObstacleDetectorManager(Context context) {
+    // Fragments of spoken announcements, prepared as audio clips up front
+    private static final String CLEAR_PREFIX = "Clear";
+    private static final String POSSIBLE_PREFIX = "Possible";
+    private static final String[] DISTANCE_PHRASES = {"very close", "close by", "nearby", "in the distance"};
+    private static final String APPROACHING_FAST = "approaching fast";
+    private static final String APPROACHING = "approaching";
+    private static final String BE_CAREFUL = "be careful";
+
+    private final ObjectLabels labels;
+
+    // Per-label tables resolved once from labels.txt
+    private byte[] priorityClass;
+    private String[] naturalNames;
+
+    private volatile long lastSpokenTime = 0;
+    private static final int MIN_TRACK_HITS = 2; // frames a track must be seen before it is announced
+    private static final long TRACK_REPEAT_MS = 8000; // before the same track is announced again
+    private static final long APPROACHING_REPEAT_MS = 3000; // repeat window for fast approaching tracks
+
+    // Earcons take ~0.1 s instead of seconds, so they can repeat far more often
+    public static final long EARCON_COOLDOWN_MS = 250;
+    public static final long EARCON_TRACK_REPEAT_MS = 1200;
+    private long cooldownMs = SPEECH_COOLDOWN_MS;
+    private long trackRepeatMs = TRACK_REPEAT_MS;
+
+    // Time-to-collision thresholds from box growth
+    public static final float TTC_FAST_MS = 2000f;
+    public static final float TTC_APPROACHING_MS = 4000f;
+    // Relative distance below which an object is announced as very close
+    public static final float VERY_CLOSE_DISTANCE = 0.25f;
+
+    public ObstacleDetectorManager(Context context, ObjectLabels labels) {
+        this.labels = labels;
         initializePriorityObjects();
-        Log.d(TAG, "Initialized with " + importantObjects.size() + " indoor objects");
+        Log.d(TAG, "Initialized with " + countImportant() + " indoor objects");
     }
 
     private void initializePriorityObjects() {
         // High priority objects - safety critical or important items
-        highPriorityObjects = new HashSet<>(Arrays.asList(
+        List<String> highPriorityObjects = Arrays.asList(
                 "person", "stairs", "knife", "scissors", "glass",
                 "oven", "microwave", "toaster", "fire", "hot surface"
-        ));
+        );
 
         // Medium priority objects - common household items
-        mediumPriorityObjects = new HashSet<>(Arrays.asList(
+        List<String> mediumPriorityObjects = Arrays.asList(
                 "chair", "dining table", "bed", "couch", "toilet", "refrigerator",
                 "sink", "door", "window", "cabinet", "bookshelf"
-        ));
+        );
 
         // Small objects - items that are typically small and might be missed
-        smallObjects = new HashSet<>(Arrays.asList(
+        List<String> smallObjects = Arrays.asList(
                 "bottle", "cup", "bowl", "fork", "knife", "spoon",
                 "banana", "apple", "orange", "broccoli", "carrot",
                 "donut", "cake", "cell phone", "remote", "keyboard", "mouse",
                 "book", "clock", "vase", "scissors", "teddy bear", "hair drier", "toothbrush",
                 "umbrella", "handbag", "tie", "suitcase", "backpack"
-        ));
-
-        // All important objects combined
-        importantObjects = new HashSet<>();
-        importantObjects.addAll(highPriorityObjects);
-        importantObjects.addAll(mediumPriorityObjects);
-        importantObjects.addAll(smallObjects);
+        );
 
         // Additional common household objects from your label list
-        importantObjects.addAll(Arrays.asList(
+        List<String> otherObjects = Arrays.asList(
                 "tv", "laptop", "potted plant", "wine glass", "sandwich", "pizza",
                 "traffic light", "stop sign", "parking meter", "bench", "bird", "cat", "dog"
-        ));
+        );
+
+        int size = labels.size();
+        priorityClass = new byte[size];
+        naturalNames = new String[size];
+        Arrays.fill(priorityClass, CLASS_NONE);
+
+        // Lowest class first so an object listed twice keeps its highest class
+        assignClass(otherObjects, CLASS_OTHER);
+        assignClass(smallObjects, CLASS_SMALL);
+        assignClass(mediumPriorityObjects, CLASS_MEDIUM);
+        assignClass(highPriorityObjects, CLASS_HIGH);
+
+        for (int id = 0; id < size; id++) {
+            naturalNames[id] = getNaturalObjectName(labels.nameOf(id));
+        }
+    }
+
+    private void assignClass(List<String> names, byte objectClass) {
+        for (String name : names) {
+            int id = labels.idOf(name);
+            if (id != ObjectLabels.UNKNOWN) {
+                priorityClass[id] = objectClass;
+            }
+        }
     }
 
     /**
-     * Analyze detection and determine if it should be announced
+     * Decide whether a tracked object is eligible for announcement and score it.
+     * Runs for every track on every frame, so it only reads primitive tables and
+     * does not allocate. Returns the priority, or -1 if the track should not be announced.
      */
-    public DetectionResult analyzeDetection(String objectName, float confidence,
-                                            float centerX, float centerY,
-                                            int imageWidth, int imageHeight,
-                                            long currentTime) {
-
-        if (objectName == null || objectName.isEmpty()) {
-            return null;
+    public int scoreTrack(ObjectTracker.Track track, int imageWidth, int imageHeight, long currentTime) {
+        int labelId = track.labelId;
+        if (labelId < 0 || labelId >= priorityClass.length) {
+            return -1;
         }
 
-        String normalizedObjectName = objectName.toLowerCase();
+        // Only announce objects that are currently matched, not coasting
+        if (track.misses > 0) {
+            return -1;
+        }
 
         // 1. Apply confidence threshold (lower for small objects)
+        float confidence = track.score;
         if (confidence < CONFIDENCE_THRESHOLD) {
-            return null;
+            return -1;
         }
 
         // 2. Only announce important indoor objects
-        if (!isImportantObject(normalizedObjectName)) {
-            return null;
+        byte objectClass = priorityClass[labelId];
+        if (objectClass == CLASS_NONE) {
+            return -1;
         }
 
         // 3. Apply speech cooldown to avoid overwhelming the user
-        if (currentTime - lastSpokenTime < SPEECH_COOLDOWN_MS) {
-            return null;
+        if (currentTime - lastSpokenTime < cooldownMs) {
+            return -1;
         }
 
-        // 4. Handle consecutive same object detection
-        if (normalizedObjectName.equals(lastSpokenObject)) {
-            consecutiveSameObjectCount++;
-            if (consecutiveSameObjectCount < MAX_CONSECUTIVE_SAME_OBJECT) {
-                return null;
-            }
-        } else {
-            consecutiveSameObjectCount = 1; // Reset counter for new object
+        // 4. Per-track stability and repeat suppression, so a flickering object keeps its state
+        if (track.hits < MIN_TRACK_HITS) {
+            return -1;
+        }
+        float timeToCollision = track.timeToCollisionMs();
+        long repeatWindow = timeToCollision < TTC_FAST_MS
+                ? Math.min(APPROACHING_REPEAT_MS, trackRepeatMs) : trackRepeatMs;
+        if (track.lastAnnouncedTime > 0 && currentTime - track.lastAnnouncedTime < repeatWindow) {
+            return -1;
         }
 
-        // 5. Calculate detailed direction and distance
-        String direction = getDetailedDirection(centerX, centerY, imageWidth, imageHeight);
+        // 5. Priority from class, confidence, distance and approach speed
+        float distance = estimateDistance(confidence, track.centerX(), track.centerY(), imageWidth, imageHeight);
+        return calculatePriority(objectClass, confidence, distance, timeToCollision);
+    }
+
+    /**
+     * Build the spoken announcement for a track that won scoreTrack(). Only called for
+     * the single track that will actually be spoken.
+     */
+    public DetectionResult buildAnnouncement(ObjectTracker.Track track, int priority,
+                                             int imageWidth, int imageHeight, long currentTime) {
+        int labelId = track.labelId;
+        float confidence = track.score;
+        float centerX = track.centerX();
+        float centerY = track.centerY();
+        float timeToCollision = track.timeToCollisionMs();
+
+        int directionZone = getDirectionZone(centerX, centerY, imageWidth, imageHeight);
+        String direction = DIRECTION_NAMES[directionZone];
         float distance = estimateDistance(confidence, centerX, centerY, imageWidth, imageHeight);
-        int priority = calculatePriority(normalizedObjectName, confidence, distance);
 
-        // 6. Generate appropriate speech message
-        String message = generateIndoorMessage(normalizedObjectName, direction, distance, confidence);
+        // Generate appropriate speech message
+        List<String> fragments = new ArrayList<>(6);
+        String message = generateIndoorMessage(labelId, direction, distance, confidence, timeToCollision,
+                fragments);
+
+        if (BuildConfig.DEBUG) {
+            Log.d(TAG, String.format("Track %d: %s (conf: %.2f, dir: %s, dist: %.1f, ttc: %.0f ms, priority: %d)",
+                    track.id, labels.nameOf(labelId), confidence, direction, distance, timeToCollision, priority));
+        }
+
+        return new DetectionResult(track.id, labels.nameOf(labelId), direction, message,
+                fragments.toArray(new String[0]), currentTime, confidence, priority, timeToCollision, directionZone, distance);
+    }
+
+    /**
+     * Switch between spoken announcements and earcons, which may repeat more often
+     */
+    public void setEarconMode(boolean earcons) {
+        cooldownMs = earcons ? EARCON_COOLDOWN_MS : SPEECH_COOLDOWN_MS;
+        trackRepeatMs = earcons ? EARCON_TRACK_REPEAT_MS : TRACK_REPEAT_MS;
+    }
 
-        Log.d(TAG, String.format("Object: %s (conf: %.2f, dir: %s, dist: %.1f, priority: %d)",
-                normalizedObjectName, confidence, direction, distance, priority));
+    /**
+     * Horizontal part of a direction zone, 0 (far left) to 4 (far right)
+     */
+    public static int horizontalZoneOf(int directionZone) {
+        return directionZone / VERTICAL_ZONES.length;
+    }
 
-        return new DetectionResult(normalizedObjectName, direction, message,
-                currentTime, confidence, priority);
+    /**
+     * Vertical part of a direction zone: 0 level, 1 above, 2 below
+     */
+    public static int verticalZoneOf(int directionZone) {
+        return directionZone % VERTICAL_ZONES.length;
     }
 
     /**
-     * Calculate detailed direction including both horizontal and vertical position
+     * Direction zone index (horizontal * 3 + vertical) into DIRECTION_NAMES
      */
-    private String getDetailedDirection(float centerX, float centerY, int width, int height) {
+    private int getDirectionZone(float centerX, float centerY, int width, int height) {
         float normalizedX = centerX / width;
         float normalizedY = centerY / height;
 
-        String horizontalDir;
-        String verticalDir;
-
         // Horizontal direction (more precise zones)
+        int horizontal;
         if (normalizedX < 0.25f) {
-            horizontalDir = "far left";
+            horizontal = 0; // far left
         } else if (normalizedX < 0.4f) {
-            horizontalDir = "left";
+            horizontal = 1; // left
         } else if (normalizedX > 0.75f) {
-            horizontalDir = "far right";
+            horizontal = 4; // far right
         } else if (normalizedX > 0.6f) {
-            horizontalDir = "right";
+            horizontal = 3; // right
         } else {
-            horizontalDir = "ahead";
+            horizontal = 2; // ahead
         }
 
         // Vertical direction (indicates if object is high or low)
+        int vertical;
         if (normalizedY < 0.3f) {
-            verticalDir = " above";
+            vertical = 1; // above
         } else if (normalizedY > 0.7f) {
-            verticalDir = " below";
+            vertical = 2; // below
         } else {
-            verticalDir = "";
+            vertical = 0;
         }
 
-        return horizontalDir + verticalDir;
+        return horizontal * VERTICAL_ZONES.length + vertical;
     }
 
     /**
@@ -172,19 +281,9 @@ public class ObstacleDetectorManager {
     /**
      * Calculate priority score for object detection
      */
-    private int calculatePriority(String objectName, float confidence, float distance) {
-        int priority = 0;
-
-        // Priority based on object type
-        if (highPriorityObjects.contains(objectName)) {
-            priority += 40; // Highest priority for safety-critical objects
-        } else if (mediumPriorityObjects.contains(objectName)) {
-            priority += 25;
-        } else if (smallObjects.contains(objectName)) {
-            priority += 20; // Small objects get decent priority
-        } else {
-            priority += 15; // Other objects
-        }
+    private int calculatePriority(byte objectClass, float confidence, float distance, float timeToCollision) {
+        // Priority based on object type (safety-critical objects highest)
+        int priority = CLASS_BASE_PRIORITY[objectClass];
 
         // Priority based on confidence
         priority += (int)(confidence * 25);
@@ -192,52 +291,98 @@ public class ObstacleDetectorManager {
         // Priority based on distance (closer objects = higher priority)
         priority += (int)((1.0f - distance) * 20);
 
+        // Priority based on approach speed (time to collision from box growth)
+        if (timeToCollision < TTC_FAST_MS) {
+            priority += 30;
+        } else if (timeToCollision < TTC_APPROACHING_MS) {
+            priority += 15;
+        }
+
         return priority;
     }
 
     /**
      * Generate natural English speech message for indoor objects
      */
-    private String generateIndoorMessage(String objectName, String direction, float distance, float confidence) {
-        StringBuilder message = new StringBuilder();
-
-        // Add confidence level indication
+    private String generateIndoorMessage(int labelId, String direction, float distance, float confidence,
+                                         float timeToCollision, List<String> fragments) {
+        // Add confidence level indication (no prefix for medium confidence)
         if (confidence > 0.75f) {
-            message.append("Clear ");
-        } else if (confidence > 0.5f) {
-            // No prefix for medium confidence
-        } else {
-            message.append("Possible ");
+            fragments.add(CLEAR_PREFIX);
+        } else if (confidence <= 0.5f) {
+            fragments.add(POSSIBLE_PREFIX);
         }
 
         // Add object name (use natural English names)
-        String naturalName = getNaturalObjectName(objectName);
-        message.append(naturalName).append(" ").append(direction);
+        fragments.add(naturalNames[labelId]);
+        fragments.add(direction);
+        StringBuilder message = new StringBuilder();
+        for (String fragment : fragments) {
+            if (message.length() > 0) message.append(' ');
+            message.append(fragment);
+        }
 
         // Add distance information
-        if (distance < 0.25f) {
-            message.append(", very close");
+        int distanceBand;
+        if (distance < VERY_CLOSE_DISTANCE) {
+            distanceBand = 0;
         } else if (distance < 0.5f) {
-            message.append(", close by");
+            distanceBand = 1;
         } else if (distance < 0.75f) {
-            message.append(", nearby");
+            distanceBand = 2;
         } else {
-            message.append(", in the distance");
+            distanceBand = 3;
+        }
+        appendClause(message, fragments, DISTANCE_PHRASES[distanceBand]);
+
+        // Add approach information
+        if (timeToCollision < TTC_FAST_MS) {
+            appendClause(message, fragments, APPROACHING_FAST);
+        } else if (timeToCollision < TTC_APPROACHING_MS) {
+            appendClause(message, fragments, APPROACHING);
         }
 
         // Add urgency for high-priority objects
-        if (highPriorityObjects.contains(objectName) && distance < 0.4f) {
-            message.append(", be careful");
+        if (priorityClass[labelId] == CLASS_HIGH && (distance < 0.4f || timeToCollision < TTC_FAST_MS)) {
+            appendClause(message, fragments, BE_CAREFUL);
         }
 
         return message.toString();
     }
 
+    private static void appendClause(StringBuilder message, List<String> fragments, String clause) {
+        message.append(", ").append(clause);
+        fragments.add(clause);
+    }
+
+    /**
+     * Every fragment an announcement can be made of: a few dozen short phrases, where
+     * the whole messages they combine into number in the tens of thousands. Prepared as
+     * clips up front so even the first alert about an object plays without synthesis.
+     */
+    public List<String> getPhraseFragments() {
+        Set<String> fragments = new LinkedHashSet<>();
+        fragments.addAll(Arrays.asList(DIRECTION_NAMES));
+        fragments.addAll(Arrays.asList(DISTANCE_PHRASES));
+        fragments.add(APPROACHING_FAST);
+        fragments.add(APPROACHING);
+        fragments.add(BE_CAREFUL);
+        fragments.add(CLEAR_PREFIX);
+        fragments.add(POSSIBLE_PREFIX);
+        // Most important objects first, as clips are rendered in this order
+        for (byte objectClass = CLASS_HIGH; objectClass >= CLASS_OTHER; objectClass--) {
+            for (int id = 0; id < priorityClass.length; id++) {
+                if (priorityClass[id] == objectClass) fragments.add(naturalNames[id]);
+            }
+        }
+        return new ArrayList<>(fragments);
+    }
+
     /**
      * Convert object names to more natural English terms
      */
     private String getNaturalObjectName(String objectName) {
-        switch (objectName.toLowerCase()) {
+        switch (objectName) {
             case "cell phone": return "phone";
             case "dining table": return "table";
             case "potted plant": return "plant";
@@ -259,7 +404,8 @@ public class ObstacleDetectorManager {
      * Check if object is important for indoor detection
      */
     public boolean isImportantObject(String objectName) {
-        return importantObjects.contains(objectName.toLowerCase());
+        int id = labels.idOf(objectName);
+        return id != ObjectLabels.UNKNOWN && priorityClass[id] != CLASS_NONE;
     }
 
     /**
@@ -270,35 +416,43 @@ public class ObstacleDetectorManager {
     }
 
     /**
-     * Update last spoken object for consecutive detection tracking
+     * Record that a track has just been announced
      */
-    public void updateLastSpokenObject(String objectName) {
-        this.lastSpokenObject = objectName != null ? objectName.toLowerCase() : "";
+    public void markAnnounced(ObjectTracker.Track track, long time) {
+        track.lastAnnouncedTime = time;
+        this.lastSpokenTime = time;
+    }
+
+    /**
+     * Undo markAnnounced(track, time) for an alert that was dropped without being said,
+     * so the track is announced again instead of staying silent for the repeat window.
+     * Nothing changes if the track was announced again or reused since.
+     */
+    public void unmarkAnnounced(ObjectTracker.Track track, long time) {
+        if (track.lastAnnouncedTime == time) {
+            track.lastAnnouncedTime = 0;
+        }
+        if (lastSpokenTime == time) {
+            lastSpokenTime = 0;
+        }
     }
 
     /**
      * Get object priority category for external use
      */
     public String getObjectPriorityCategory(String objectName) {
-        String name = objectName.toLowerCase();
-        if (highPriorityObjects.contains(name)) {
-            return "HIGH";
-        } else if (mediumPriorityObjects.contains(name)) {
-            return "MEDIUM";
-        } else if (smallObjects.contains(name)) {
-            return "SMALL";
-        } else {
-            return "LOW";
+        int id = labels.idOf(objectName);
+        if (id == ObjectLabels.UNKNOWN || priorityClass[id] == CLASS_NONE) {
+            return CLASS_NAMES[CLASS_OTHER];
         }
+        return CLASS_NAMES[priorityClass[id]];
     }
 
     /**
      * Reset detection state (useful when changing environments)
      */
     public void resetDetectionState() {
-        lastSpokenObject = "";
-        consecutiveSameObjectCount = 0;
-        lastSpokenTime = System.currentTimeMillis() - SPEECH_COOLDOWN_MS; // Reset cooldown
+        lastSpokenTime = System.currentTimeMillis() - cooldownMs; // Reset cooldown
         Log.d(TAG, "Detection state reset");
     }
 
@@ -306,28 +460,40 @@ public class ObstacleDetectorManager {
      * Data class for detection results
      */
     public static class DetectionResult {
+        public final int trackId;
         public final String objectName;
         public final String direction;
         public final String spokenMessage;
+        // The pieces spokenMessage is made of, each prepared as a clip
+        public final String[] spokenFragments;
         public final long detectionTime;
         public final float confidence;
         public final int priority;
-
-        public DetectionResult(String objectName, String direction,
-                               String spokenMessage, long detectionTime,
-                               float confidence, int priority) {
+        public final float timeToCollisionMs;
+        public final int directionZone;
+        public final float distance;
+
+        public DetectionResult(int trackId, String objectName, String direction,
+                               String spokenMessage, String[] spokenFragments, long detectionTime,
+                               float confidence, int priority, float timeToCollisionMs,
+                               int directionZone, float distance) {
+            this.trackId = trackId;
             this.objectName = objectName;
             this.direction = direction;
             this.spokenMessage = spokenMessage;
+            this.spokenFragments = spokenFragments;
             this.detectionTime = detectionTime;
             this.confidence = confidence;
             this.priority = priority;
+            this.timeToCollisionMs = timeToCollisionMs;
+            this.directionZone = directionZone;
+            this.distance = distance;
         }
 
         @Override
         public String toString() {
-            return String.format("DetectionResult{object='%s', dir='%s', priority=%d, conf=%.2f}",
-                    objectName, direction, priority, confidence);
+            return String.format("DetectionResult{track=%d, object='%s', dir='%s', priority=%d, conf=%.2f}",
+                    trackId, objectName, direction, priority, confidence);
         }
     }
 
@@ -335,31 +501,30 @@ public class ObstacleDetectorManager {
      * Clean up resources
      */
     public void release() {
-        if (importantObjects != null) {
-            importantObjects.clear();
-        }
-        if (highPriorityObjects != null) {
-            highPriorityObjects.clear();
-        }
-        if (mediumPriorityObjects != null) {
-            mediumPriorityObjects.clear();
-        }
-        if (smallObjects != null) {
-            smallObjects.clear();
-        }
-        lastSpokenObject = "";
-        consecutiveSameObjectCount = 0;
+        lastSpokenTime = 0;
         Log.d(TAG, "ObstacleDetectorManager released");
     }
 
+    private int countImportant() {
+        int count = 0;
+        for (byte objectClass : priorityClass) {
+            if (objectClass != CLASS_NONE) count++;
+        }
+        return count;
+    }
+
     /**
      * Debug method to list all tracked objects
      */
     public void listTrackedObjects() {
+        int[] perClass = new int[CLASS_NAMES.length];
+        for (byte objectClass : priorityClass) {
+            if (objectClass != CLASS_NONE) perClass[objectClass]++;
+        }
         Log.d(TAG, "=== Tracked Objects ===");
-        Log.d(TAG, "High Priority: " + highPriorityObjects.size() + " objects");
-        Log.d(TAG, "Medium Priority: " + mediumPriorityObjects.size() + " objects");
-        Log.d(TAG, "Small Objects: " + smallObjects.size() + " objects");
-        Log.d(TAG, "Total Important: " + importantObjects.size() + " objects");
+        Log.d(TAG, "High Priority: " + perClass[CLASS_HIGH] + " objects");
+        Log.d(TAG, "Medium Priority: " + perClass[CLASS_MEDIUM] + " objects");
+        Log.d(TAG, "Small Objects: " + perClass[CLASS_SMALL] + " objects");
+        Log.d(TAG, "Total Important: " + countImportant() + " objects");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.visualguard.finnalproject;
+
+import android.graphics.Rect;
+
+import com.google.mlkit.vision.text.Text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flattens an ML Kit result into its lines in reading order, shared by text and
+ * ingredient modes. Reuses its box buffer, so keep one instance per analyzer.
+ */
+public class OcrLineOrder {
+    private final ReadingOrderLayout layout = new ReadingOrderLayout();
+    private final List<Text.Line> lines = new ArrayList<>();
+    private float[] boxes = new float[4 * 64];
+
+    /**
+     * Lines of text in reading order; lines without a bounding box are left out
+     */
+    public List<Text.Line> linesInReadingOrder(Text text) {
+        lines.clear();
+        for (Text.TextBlock block : text.getTextBlocks()) {
+            for (Text.Line line : block.getLines()) {
+                if (line.getBoundingBox() != null) lines.add(line);
+            }
+        }
+
+        int count = lines.size();
+        if (boxes.length < count * 4) {
+            boxes = new float[count * 8];
+        }
+        for (int i = 0; i < count; i++) {
+            Rect box = lines.get(i).getBoundingBox();
+            boxes[i * 4] = box.left;
+            boxes[i * 4 + 1] = box.top;
+            boxes[i * 4 + 2] = box.right;
+            boxes[i * 4 + 3] = box.bottom;
+        }
+
+        int[] order = layout.order(boxes, count);
+        List<Text.Line> ordered = new ArrayList<>(count);
+        for (int index : order) {
+            ordered.add(lines.get(index));
+        }
+        lines.clear();
+        return ordered;
+    }
+}
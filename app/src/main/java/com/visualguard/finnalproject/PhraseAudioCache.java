@@ -0,0 +1,240 @@
+package com.visualguard.finnalproject;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.SoundPool;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pre-synthesized audio for fixed and frequently repeated phrases. SpeechService renders
+ * a phrase to a WAV file once (keyed by text, voice and rate), and later plays it
+ * through SoundPool, which starts in milliseconds and costs no synthesis CPU. Phrases
+ * are cached when prepared up front or once they have been spoken MIN_USES times;
+ * files live in the cache directory with LRU eviction over MAX_BYTES, except for
+ * prepared phrases, which stay.
+ */
+public class PhraseAudioCache {
+    private static final String TAG = "PhraseAudioCache";
+
+    private static final long MAX_BYTES = 8L * 1024 * 1024;
+    private static final int MIN_USES = 2;
+    // Phrases whose use counts are remembered
+    private static final int MAX_TRACKED = 256;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int WAV_HEADER_BYTES = 44;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * A phrase waiting to be synthesized
+     */
+    public static class Phrase {
+        public final String key;
+        public final String text;
+        public final float rate;
+        int attempts = 0;
+
+        Phrase(String key, String text, float rate) {
+            this.key = key;
+            this.text = text;
+            this.rate = rate;
+        }
+    }
+
+    private final PhraseCacheIndex index;
+    private final SoundPool soundPool;
+
+    // All guarded by this
+    private final Map<String, Integer> soundIds = new HashMap<>();
+    private final Set<Integer> loadedSounds = new HashSet<>();
+    private final Map<String, Long> durations = new HashMap<>();
+    private final LinkedHashMap<String, Phrase> toSynthesize = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Integer> uses = new LinkedHashMap<String, Integer>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > MAX_TRACKED;
+        }
+    };
+    private Phrase synthesizing;
+    private int streamId = 0;
+
+    public PhraseAudioCache(Context context) {
+        index = new PhraseCacheIndex(new File(context.getCacheDir(), "phrases"), MAX_BYTES);
+        index.load();
+        soundPool = new SoundPool.Builder()
+                .setMaxStreams(1)
+                .setAudioAttributes(new AudioAttributes.Builder()
+                        .setUsage(AudioAttributes.USAGE_ASSISTANCE_ACCESSIBILITY)
+                        .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+                        .build())
+                .build();
+        soundPool.setOnLoadCompleteListener((pool, sampleId, status) -> onLoaded(sampleId, status));
+        Log.d(TAG, index.size() + " cached phrases, " + index.totalBytes() + " bytes");
+    }
+
+    public static String keyFor(String text, String voice, float rate) {
+        long hash = FNV_OFFSET;
+        String id = text + '\u0000' + voice + '\u0000' + rate;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return Long.toHexString(hash);
+    }
+
+    /**
+     * Whether a cached phrase can be played right now; a phrase on disk but not yet in
+     * memory is loaded for next time
+     */
+    public synchronized boolean isReady(String key) {
+        Integer soundId = soundIds.get(key);
+        if (index.get(key) == null) {
+            // Evicted from disk since it was loaded
+            if (soundId != null) unload(key, soundId);
+            return false;
+        }
+        if (soundId == null) {
+            load(key);
+            return false;
+        }
+        return loadedSounds.contains(soundId);
+    }
+
+    /**
+     * Start playing a cached phrase. Returns its duration in ms, or -1 if it is not ready
+     * to play.
+     */
+    public synchronized long play(String key) {
+        if (!isReady(key)) return -1;
+        streamId = soundPool.play(soundIds.get(key), 1f, 1f, 1, 0, 1f);
+        return streamId != 0 ? durations.get(key) : -1;
+    }
+
+    public synchronized void stop() {
+        if (streamId != 0) {
+            soundPool.stop(streamId);
+            streamId = 0;
+        }
+    }
+
+    /**
+     * Cache a phrase known to be spoken often, before it is first spoken
+     */
+    public synchronized void prepare(String key, String text, float rate) {
+        index.pin(key);
+        request(key, text, rate);
+    }
+
+    /**
+     * A phrase was just synthesized live; cache it if it keeps coming back
+     */
+    public synchronized void noteSpoken(String key, String text, float rate) {
+        Integer count = uses.get(key);
+        count = count == null ? 1 : count + 1;
+        uses.put(key, count);
+        if (count >= MIN_USES) {
+            request(key, text, rate);
+        }
+    }
+
+    private void request(String key, String text, float rate) {
+        if (index.contains(key) || toSynthesize.containsKey(key)) return;
+        if (synthesizing != null && synthesizing.key.equals(key)) return;
+        toSynthesize.put(key, new Phrase(key, text, rate));
+    }
+
+    /**
+     * The next phrase to render, or null if none is waiting or one is being rendered
+     */
+    public synchronized Phrase nextToSynthesize() {
+        if (synthesizing != null) return null;
+        Iterator<Phrase> it = toSynthesize.values().iterator();
+        if (!it.hasNext()) return null;
+        synthesizing = it.next();
+        it.remove();
+        synthesizing.attempts++;
+        return synthesizing;
+    }
+
+    public synchronized File fileFor(String key) {
+        return index.fileFor(key);
+    }
+
+    /**
+     * The engine finished rendering (or gave up on) the phrase from nextToSynthesize()
+     */
+    public synchronized void onSynthesized(String key, boolean success) {
+        if (synthesizing == null || !synthesizing.key.equals(key)) return;
+        Phrase phrase = synthesizing;
+        synthesizing = null;
+
+        File file = index.fileFor(key);
+        if (!success || wavDurationMs(file) <= 0) {
+            file.delete();
+            // Usually flushed by live speech; prepared phrases are tried again when idle
+            if (index.isPinned(key) && phrase.attempts < MAX_ATTEMPTS) {
+                toSynthesize.put(key, phrase);
+            }
+            return;
+        }
+        index.put(key, file);
+        load(key);
+    }
+
+    private void load(String key) {
+        File file = index.fileFor(key);
+        long duration = wavDurationMs(file);
+        if (duration <= 0) {
+            index.remove(key);
+            file.delete();
+            return;
+        }
+        durations.put(key, duration);
+        soundIds.put(key, soundPool.load(file.getPath(), 1));
+    }
+
+    private void unload(String key, int soundId) {
+        soundPool.unload(soundId);
+        loadedSounds.remove(soundId);
+        soundIds.remove(key);
+        durations.remove(key);
+    }
+
+    private synchronized void onLoaded(int sampleId, int status) {
+        if (status == 0) {
+            loadedSounds.add(sampleId);
+        } else {
+            Log.w(TAG, "Failed to load phrase sample " + sampleId);
+        }
+    }
+
+    /**
+     * Duration of a PCM WAV file from its byte rate, or -1 if it is not one
+     */
+    static long wavDurationMs(File file) {
+        long length = file.length();
+        if (length <= WAV_HEADER_BYTES) return -1;
+        byte[] header = new byte[WAV_HEADER_BYTES];
+        try (FileInputStream in = new FileInputStream(file)) {
+            if (in.read(header) != WAV_HEADER_BYTES) return -1;
+        } catch (IOException e) {
+            return -1;
+        }
+        if (header[0] != 'R' || header[1] != 'I' || header[2] != 'F' || header[3] != 'F') return -1;
+        long byteRate = (header[28] & 0xFF) | (header[29] & 0xFF) << 8
+                | (header[30] & 0xFF) << 16 | (long) (header[31] & 0xFF) << 24;
+        if (byteRate <= 0) return -1;
+        return (length - WAV_HEADER_BYTES) * 1000 / byteRate;
+    }
+}
@@ -0,0 +1,129 @@
+package com.visualguard.finnalproject;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Size-bounded LRU index over the pre-synthesized phrase files in one directory. Files
+ * are named by key; the least recently played are deleted once the directory holds more
+ * than maxBytes. Pinned keys (phrases prepared up front) are never evicted.
+ * Not thread-safe; PhraseAudioCache guards it.
+ */
+public class PhraseCacheIndex {
+    public static final String EXTENSION = ".wav";
+
+    private final File dir;
+    private final long maxBytes;
+    // Key to file length, in access order
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> pinned = new HashSet<>();
+    private long totalBytes = 0;
+
+    public PhraseCacheIndex(File dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Index the files already on disk, oldest first so the recently written ones survive
+     */
+    public void load() {
+        if (!dir.isDirectory() && !dir.mkdirs()) return;
+        File[] existing = dir.listFiles();
+        if (existing == null) return;
+        Arrays.sort(existing, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Long.compare(a.lastModified(), b.lastModified());
+            }
+        });
+        for (File file : existing) {
+            String name = file.getName();
+            if (!name.endsWith(EXTENSION) || file.length() == 0) {
+                file.delete();
+                continue;
+            }
+            add(name.substring(0, name.length() - EXTENSION.length()), file.length());
+        }
+        trim();
+    }
+
+    /**
+     * Where the file for a key is written
+     */
+    public File fileFor(String key) {
+        return new File(dir, key + EXTENSION);
+    }
+
+    /**
+     * The cached file for a key, marking it recently used, or null
+     */
+    public File get(String key) {
+        return sizes.get(key) != null ? fileFor(key) : null;
+    }
+
+    /**
+     * Record a newly written file and evict the least recently used ones over the limit
+     */
+    public void put(String key, File file) {
+        remove(key);
+        add(key, file.length());
+        trim();
+    }
+
+    /**
+     * Forget a key without deleting its file
+     */
+    public void remove(String key) {
+        Long size = sizes.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    /**
+     * Keep a key out of eviction, whether or not its file exists yet
+     */
+    public void pin(String key) {
+        pinned.add(key);
+    }
+
+    public boolean isPinned(String key) {
+        return pinned.contains(key);
+    }
+
+    public boolean contains(String key) {
+        return sizes.containsKey(key);
+    }
+
+    public int size() {
+        return sizes.size();
+    }
+
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    private void add(String key, long size) {
+        sizes.put(key, size);
+        totalBytes += size;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Long>> it = sizes.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            // Always keep the newest file, even if it alone is over the limit
+            if (pinned.contains(eldest.getKey()) || !it.hasNext()) continue;
+            totalBytes -= eldest.getValue();
+            it.remove();
+            fileFor(eldest.getKey()).delete();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.visualguard.finnalproject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Puts OCR lines into reading order using their bounding boxes, so multi-column
+ * menus and documents are read column by column rather than in the order ML Kit
+ * returns blocks.
+ *
+ * Lines wider than SPANNING_FRACTION of the page (headings, full-width paragraphs)
+ * split the page into horizontal sections. Within a section, the x-extents of the
+ * remaining lines are merged into columns; columns are read left to right and
+ * each column top to bottom. Sorting dominates, so the cost is O(n log n).
+ */
+public class ReadingOrderLayout {
+    public static final float SPANNING_FRACTION = 0.6f;
+    // Lines closer than this many line heights horizontally belong to the same column
+    private static final float COLUMN_GAP_HEIGHTS = 0.5f;
+
+    /**
+     * @param boxes left, top, right, bottom of each line, 4 floats per line
+     * @param count number of lines
+     * @return line indices in reading order
+     */
+    public int[] order(final float[] boxes, int count) {
+        int[] result = new int[count];
+        if (count == 0) return result;
+
+        float pageLeft = Float.MAX_VALUE;
+        float pageRight = -Float.MAX_VALUE;
+        Integer[] byTop = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            pageLeft = Math.min(pageLeft, boxes[i * 4]);
+            pageRight = Math.max(pageRight, boxes[i * 4 + 2]);
+            byTop[i] = i;
+        }
+        float spanningWidth = (pageRight - pageLeft) * SPANNING_FRACTION;
+
+        Arrays.sort(byTop, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                int byY = Float.compare(boxes[a * 4 + 1], boxes[b * 4 + 1]);
+                return byY != 0 ? byY : Float.compare(boxes[a * 4], boxes[b * 4]);
+            }
+        });
+
+        // Walk top to bottom; a spanning line closes the section above it
+        List<Integer> section = new ArrayList<>();
+        int written = 0;
+        for (Integer line : byTop) {
+            float width = boxes[line * 4 + 2] - boxes[line * 4];
+            if (width >= spanningWidth && count > 1) {
+                written = writeSection(boxes, section, result, written);
+                section.clear();
+                result[written++] = line;
+            } else {
+                section.add(line);
+            }
+        }
+        writeSection(boxes, section, result, written);
+        return result;
+    }
+
+    /**
+     * Split a section (lines in top-to-bottom order) into columns and append them
+     * to result, left column first
+     */
+    private int writeSection(final float[] boxes, List<Integer> section, int[] result, int written) {
+        int size = section.size();
+        if (size == 0) return written;
+        if (size == 1) {
+            result[written++] = section.get(0);
+            return written;
+        }
+
+        float totalHeight = 0;
+        Integer[] byLeft = section.toArray(new Integer[0]);
+        for (Integer line : byLeft) {
+            totalHeight += boxes[line * 4 + 3] - boxes[line * 4 + 1];
+        }
+        float gap = totalHeight / size * COLUMN_GAP_HEIGHTS;
+
+        Arrays.sort(byLeft, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Float.compare(boxes[a * 4], boxes[b * 4]);
+            }
+        });
+
+        // Merge overlapping x-extents; columns come out left to right
+        List<float[]> columns = new ArrayList<>();
+        float columnLeft = boxes[byLeft[0] * 4];
+        float columnRight = boxes[byLeft[0] * 4 + 2];
+        for (int i = 1; i < size; i++) {
+            int line = byLeft[i];
+            if (boxes[line * 4] > columnRight + gap) {
+                columns.add(new float[]{columnLeft, columnRight});
+                columnLeft = boxes[line * 4];
+            }
+            columnRight = Math.max(columnRight, boxes[line * 4 + 2]);
+        }
+        columns.add(new float[]{columnLeft, columnRight});
+
+        if (columns.size() == 1) {
+            for (Integer line : section) result[written++] = line;
+            return written;
+        }
+
+        // Bucket in section order, which is already top to bottom
+        List<List<Integer>> buckets = new ArrayList<>(columns.size());
+        for (int c = 0; c < columns.size(); c++) buckets.add(new ArrayList<Integer>());
+        for (Integer line : section) {
+            buckets.get(findColumn(columns, boxes[line * 4])).add(line);
+        }
+        for (List<Integer> bucket : buckets) {
+            for (Integer line : bucket) result[written++] = line;
+        }
+        return written;
+    }
+
+    /**
+     * Binary search for the column containing x (columns are sorted and disjoint)
+     */
+    private static int findColumn(List<float[]> columns, float x) {
+        int low = 0;
+        int high = columns.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (columns.get(mid)[0] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,170 @@
+package com.visualguard.finnalproject;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.ListIterator;
+import java.util.Map;
+
+/**
+ * Ordering policy behind SpeechService, kept free of TextToSpeech so it can be tested
+ * locally. Holds the utterance being spoken and one FIFO per priority; the most urgent
+ * non-empty FIFO is spoken next. Expired utterances are dropped before they reach the
+ * engine, and a keyed utterance takes the place of a waiting one with the same key.
+ * Utterances that expire or are cancelled tell their DropListener.
+ * Not thread-safe; SpeechService guards it.
+ */
+public class SpeechQueue {
+    private final Map<Utterance.Priority, LinkedList<Utterance>> pending =
+            new EnumMap<>(Utterance.Priority.class);
+    private Utterance current;
+    private int expiredCount = 0;
+    private int mergedCount = 0;
+
+    public SpeechQueue() {
+        for (Utterance.Priority priority : Utterance.Priority.values()) {
+            pending.put(priority, new LinkedList<Utterance>());
+        }
+    }
+
+    /**
+     * Queue an utterance. Returns true if it should cut off the one being spoken;
+     * the caller then calls interrupt() and speaks next().
+     */
+    public boolean offer(Utterance utterance, long now) {
+        if (utterance.isExpired(now)) {
+            expiredCount++;
+            utterance.dropped();
+            return false;
+        }
+        // Already being said
+        if (utterance.sameKey(current) && utterance.text.equals(current.text)) {
+            mergedCount++;
+            return false;
+        }
+
+        LinkedList<Utterance> queue = pending.get(utterance.priority);
+        if (utterance.priority.coalesce) {
+            queue.clear();
+            queue.addLast(utterance);
+        } else if (utterance.key == null || !replaceKeyed(utterance)) {
+            queue.addLast(utterance);
+        }
+
+        if (current == null) return false;
+        int currentRank = current.priority.rank;
+        int rank = utterance.priority.rank;
+        return rank > currentRank || (rank == currentRank && utterance.priority.interruptsSame);
+    }
+
+    /**
+     * Replace the first waiting utterance with the same key in place, so the update keeps
+     * its turn, and drop any others. Returns false if none was waiting at this priority.
+     */
+    private boolean replaceKeyed(Utterance utterance) {
+        boolean replaced = false;
+        for (Map.Entry<Utterance.Priority, LinkedList<Utterance>> entry : pending.entrySet()) {
+            boolean samePriority = entry.getKey() == utterance.priority;
+            ListIterator<Utterance> it = entry.getValue().listIterator();
+            while (it.hasNext()) {
+                if (!utterance.sameKey(it.next())) continue;
+                mergedCount++;
+                if (samePriority && !replaced) {
+                    it.set(utterance);
+                    replaced = true;
+                } else {
+                    it.remove();
+                }
+            }
+        }
+        return replaced;
+    }
+
+    /**
+     * Take the most urgent waiting utterance that has not expired as the current one,
+     * or null if none is waiting
+     */
+    public Utterance next(long now) {
+        current = null;
+        for (Utterance.Priority priority : Utterance.Priority.values()) {
+            Iterator<Utterance> it = pending.get(priority).iterator();
+            while (it.hasNext()) {
+                Utterance next = it.next();
+                it.remove();
+                if (next.isExpired(now)) {
+                    expiredCount++;
+                    next.dropped();
+                    continue;
+                }
+                current = next;
+                return current;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The current utterance is being cut off. Messages that are not superseded by newer
+     * ones (emergency instructions, text being read) are spoken again afterwards, unless
+     * they expire first.
+     */
+    public void interrupt() {
+        if (current != null && !current.priority.coalesce) {
+            pending.get(current.priority).addFirst(current);
+        }
+        current = null;
+    }
+
+    /**
+     * The current utterance finished or failed
+     */
+    public void finish() {
+        current = null;
+    }
+
+    /**
+     * Drop every waiting utterance whose key starts with keyPrefix, e.g. one screen's
+     * messages, leaving those of other screens at the same priority. Returns true if the
+     * current one matches too; the caller stops the engine and calls finish().
+     */
+    public boolean cancel(String keyPrefix) {
+        for (LinkedList<Utterance> queue : pending.values()) {
+            Iterator<Utterance> it = queue.iterator();
+            while (it.hasNext()) {
+                Utterance next = it.next();
+                if (!next.hasKeyPrefix(keyPrefix)) continue;
+                it.remove();
+                next.dropped();
+            }
+        }
+        if (current == null || !current.hasKeyPrefix(keyPrefix)) return false;
+        current.dropped();
+        return true;
+    }
+
+    public Utterance current() {
+        return current;
+    }
+
+    public int pendingCount() {
+        int count = 0;
+        for (LinkedList<Utterance> queue : pending.values()) {
+            count += queue.size();
+        }
+        return count;
+    }
+
+    /**
+     * Utterances dropped because their deadline passed before they could be spoken
+     */
+    public int getExpiredCount() {
+        return expiredCount;
+    }
+
+    /**
+     * Utterances merged into a newer one with the same key
+     */
+    public int getMergedCount() {
+        return mergedCount;
+    }
+}
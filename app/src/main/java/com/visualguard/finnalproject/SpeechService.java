@@ -0,0 +1,312 @@
+package com.visualguard.finnalproject;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.speech.tts.TextToSpeech;
+import android.speech.tts.UtteranceProgressListener;
+import android.speech.tts.Voice;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Process-wide speech output. Binds the TextToSpeech engine once instead of in every
+ * activity, and speaks through a SpeechQueue so an obstacle alert is never held up
+ * behind a status readout: more urgent messages cut off less urgent ones, stale
+ * navigation messages and messages with the same key are replaced by newer ones, and
+ * messages past their deadline are dropped before synthesis. Messages spoken before
+ * the engine is ready are queued.
+ *
+ * Fixed and frequently repeated phrases are rendered to files while the engine is idle
+ * and played from PhraseAudioCache instead of being synthesized again. Obstacle alerts
+ * are played as a sequence of prepared fragments (object, direction, distance) once all
+ * of them are cached.
+ */
+public class SpeechService {
+    private static final String TAG = "SpeechService";
+    private static final String SYNTHESIS_PREFIX = "phrase-";
+    // Longer live messages are one-off content (text being read), not phrases worth a file
+    private static final int MAX_CACHED_PHRASE_LENGTH = 80;
+
+    private static SpeechService instance;
+
+    private final TextToSpeech tts;
+    private final PhraseAudioCache phrases;
+    private final Handler mainHandler;
+    // Guarded by this
+    private final SpeechQueue queue = new SpeechQueue();
+    private final List<Utterance> preparedBeforeReady = new ArrayList<>();
+    private boolean ready = false;
+    private String voiceName = "default";
+    private String currentId;
+    // Cached clips making up the current utterance, null while the engine speaks it
+    private String[] clips;
+    private int clipIndex;
+    private int nextId = 0;
+
+    private SpeechService(Context context) {
+        Context appContext = context.getApplicationContext();
+        phrases = new PhraseAudioCache(appContext);
+        mainHandler = new Handler(Looper.getMainLooper());
+        tts = new TextToSpeech(appContext, this::onInit);
+    }
+
+    public static synchronized SpeechService getInstance(Context context) {
+        if (instance == null) {
+            instance = new SpeechService(context);
+        }
+        return instance;
+    }
+
+    private synchronized void onInit(int status) {
+        if (status != TextToSpeech.SUCCESS) {
+            Log.e(TAG, "TTS initialization failed: " + status);
+            return;
+        }
+        tts.setLanguage(Locale.ENGLISH);
+        Voice voice = tts.getVoice();
+        if (voice != null) {
+            voiceName = voice.getName();
+        }
+        tts.setOnUtteranceProgressListener(new UtteranceProgressListener() {
+            @Override
+            public void onStart(String utteranceId) {
+            }
+
+            @Override
+            public void onDone(String utteranceId) {
+                onFinished(utteranceId, true);
+            }
+
+            @Override
+            public void onError(String utteranceId) {
+                onFinished(utteranceId, false);
+            }
+
+            @Override
+            public void onStop(String utteranceId, boolean interrupted) {
+                onFinished(utteranceId, false);
+            }
+        });
+        ready = true;
+        for (Utterance phrase : preparedBeforeReady) {
+            prepare(phrase.text, phrase.rate);
+        }
+        preparedBeforeReady.clear();
+        speakNext();
+    }
+
+    /**
+     * Render a fixed phrase to the phrase cache while the engine is idle, so it plays
+     * without synthesis delay when it is spoken at this rate
+     */
+    public synchronized void prepare(String text, float rate) {
+        if (!ready) {
+            preparedBeforeReady.add(new Utterance(text, Utterance.Priority.INFO, rate));
+            return;
+        }
+        phrases.prepare(PhraseAudioCache.keyFor(text, voiceName, rate), text, rate);
+        if (currentId == null) {
+            synthesizeNext();
+        }
+    }
+
+    public void speak(String text, Utterance.Priority priority) {
+        speak(text, priority, Utterance.DEFAULT_RATE);
+    }
+
+    public void speak(String text, Utterance.Priority priority, float rate) {
+        if (text == null || text.trim().isEmpty()) return;
+        speak(new Utterance(text, priority, rate));
+    }
+
+    /**
+     * Speak a message that replaces any waiting one with the same key and is dropped if
+     * it cannot start within maxDelayMs
+     *
+     * @param key e.g. an obstacle track or ingredient name; null never merges
+     */
+    public void speak(String text, Utterance.Priority priority, float rate, String key, long maxDelayMs) {
+        speak(text, priority, rate, key, maxDelayMs, null);
+    }
+
+    /**
+     * As above, and tell dropListener if the message is dropped without being said
+     */
+    public void speak(String text, Utterance.Priority priority, float rate, String key, long maxDelayMs,
+                      Utterance.DropListener dropListener) {
+        if (text == null || text.trim().isEmpty()) return;
+        long now = SystemClock.uptimeMillis();
+        speak(new Utterance(text, priority, rate, key, now, now + maxDelayMs, dropListener));
+    }
+
+    /**
+     * Speak an alert made of fragments prepared with prepare(). The clips are played back
+     * to back when all are cached; otherwise text is synthesized as usual.
+     */
+    public void speak(String text, String[] fragments, Utterance.Priority priority, float rate, String key,
+                      long maxDelayMs, Utterance.DropListener dropListener) {
+        if (text == null || text.trim().isEmpty()) return;
+        long now = SystemClock.uptimeMillis();
+        speak(new Utterance(text, priority, rate, key, now, now + maxDelayMs, dropListener, fragments));
+    }
+
+    /**
+     * Queue an utterance; safe to call from any thread
+     */
+    public synchronized void speak(Utterance utterance) {
+        boolean preempt = queue.offer(utterance, SystemClock.uptimeMillis());
+        if (!ready) return;
+        if (preempt) {
+            Log.d(TAG, "Interrupting " + queue.current() + " for " + utterance);
+            queue.interrupt();
+            stopCurrent();
+        }
+        if (queue.current() == null) {
+            speakNext();
+        }
+    }
+
+    /**
+     * Drop queued messages whose key starts with keyPrefix and stop the one being spoken
+     * if it matches, e.g. text being read when text mode is left. Messages of other
+     * screens are kept.
+     */
+    public synchronized void cancel(String keyPrefix) {
+        if (queue.cancel(keyPrefix)) {
+            queue.finish();
+            if (ready) {
+                stopCurrent();
+                speakNext();
+            }
+        }
+    }
+
+    // Guarded by this
+    private void stopCurrent() {
+        if (currentId == null) return;
+        if (clips != null) {
+            phrases.stop();
+        } else {
+            tts.stop();
+        }
+        currentId = null;
+        clips = null;
+    }
+
+    private synchronized void onFinished(String utteranceId, boolean success) {
+        if (utteranceId == null) return;
+        if (utteranceId.startsWith(SYNTHESIS_PREFIX)) {
+            phrases.onSynthesized(utteranceId.substring(SYNTHESIS_PREFIX.length()), success);
+            if (currentId == null) {
+                synthesizeNext();
+            }
+            return;
+        }
+        // Callbacks for utterances already cut off or cancelled are ignored
+        if (!utteranceId.equals(currentId)) return;
+        queue.finish();
+        currentId = null;
+        clips = null;
+        speakNext();
+    }
+
+    /**
+     * A clip has played for its duration; SoundPool reports no completion
+     */
+    private synchronized void onClipFinished(String id) {
+        if (!id.equals(currentId) || clips == null) return;
+        if (++clipIndex < clips.length) {
+            long clipMs = phrases.play(clips[clipIndex]);
+            if (clipMs > 0) {
+                mainHandler.postDelayed(() -> onClipFinished(id), clipMs);
+                return;
+            }
+            Log.w(TAG, "Fragment no longer cached, alert cut short: " + clips[clipIndex]);
+        }
+        onFinished(id, true);
+    }
+
+    // Guarded by this; QUEUE_FLUSH because the engine only ever holds the current utterance
+    private void speakNext() {
+        Utterance next;
+        long now = SystemClock.uptimeMillis();
+        while ((next = queue.next(now)) != null) {
+            String id = "speech-" + (nextId++);
+            if (next.queuedAt > 0) {
+                Log.d(TAG, "Speaking " + next + " after " + (now - next.queuedAt) + " ms, expired "
+                        + queue.getExpiredCount() + ", merged " + queue.getMergedCount());
+            }
+            String key = PhraseAudioCache.keyFor(next.text, voiceName, next.rate);
+            String[] cached = cachedClipsFor(next, key);
+            long clipMs = cached != null ? phrases.play(cached[0]) : -1;
+            if (clipMs > 0) {
+                currentId = id;
+                clips = cached;
+                clipIndex = 0;
+                mainHandler.postDelayed(() -> onClipFinished(id), clipMs);
+                return;
+            }
+
+            tts.setSpeechRate(next.rate);
+            if (tts.speak(next.text, TextToSpeech.QUEUE_FLUSH, null, id) == TextToSpeech.SUCCESS) {
+                currentId = id;
+                clips = null;
+                if (isCacheable(next)) {
+                    phrases.noteSpoken(key, next.text, next.rate);
+                }
+                return;
+            }
+            Log.w(TAG, "Failed to speak " + next);
+            next.dropped();
+        }
+        currentId = null;
+        synthesizeNext();
+    }
+
+    /**
+     * Keys of the clips to play for an utterance: the whole text if it is cached, else its
+     * fragments if every one of them is; null if it has to be synthesized
+     */
+    private String[] cachedClipsFor(Utterance utterance, String key) {
+        if (phrases.isReady(key)) return new String[]{key};
+        if (utterance.fragments == null) return null;
+        String[] keys = new String[utterance.fragments.length];
+        boolean ready = true;
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = PhraseAudioCache.keyFor(utterance.fragments[i], voiceName, utterance.rate);
+            // Checks every fragment, so those on disk are all loaded for next time
+            ready &= phrases.isReady(keys[i]);
+        }
+        return ready ? keys : null;
+    }
+
+    /**
+     * Alerts made of prepared fragments are not cached again as a whole. Only short
+     * alerts and navigation prompts are cached when they repeat; read text,
+     * ingredient warnings and status readouts are user content and stay off disk
+     */
+    private static boolean isCacheable(Utterance utterance) {
+        return utterance.fragments == null
+                && (utterance.priority == Utterance.Priority.SAFETY
+                        || utterance.priority == Utterance.Priority.NAVIGATION)
+                && utterance.text.length() <= MAX_CACHED_PHRASE_LENGTH;
+    }
+
+    // Guarded by this. Only while nothing is spoken: live speech flushes the engine queue,
+    // which drops a rendering in progress, and it is retried at the next idle moment.
+    private void synthesizeNext() {
+        PhraseAudioCache.Phrase phrase = phrases.nextToSynthesize();
+        if (phrase == null) return;
+        tts.setSpeechRate(phrase.rate);
+        int result = tts.synthesizeToFile(phrase.text, null, phrases.fileFor(phrase.key),
+                SYNTHESIS_PREFIX + phrase.key);
+        if (result != TextToSpeech.SUCCESS) {
+            phrases.onSynthesized(phrase.key, false);
+        }
+    }
+}
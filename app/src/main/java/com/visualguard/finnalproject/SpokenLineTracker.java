@@ -0,0 +1,71 @@
+package com.visualguard.finnalproject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers which OCR lines have already been read aloud, by a 64-bit hash of the
+ * normalized line, so text mode only speaks lines that are new. Case, punctuation
+ * and spacing differences between frames therefore do not count as new text. Holds
+ * at most capacity lines; the oldest are forgotten first.
+ */
+public class SpokenLineTracker {
+    // Lines shorter than this (normalized) are OCR noise and never spoken
+    public static final int MIN_LINE_LENGTH = 3;
+    public static final long NOT_A_LINE = 0L;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<Long, Boolean> spoken;
+
+    public SpokenLineTracker(final int capacity) {
+        this.spoken = new LinkedHashMap<Long, Boolean>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Hash of the normalized line, or NOT_A_LINE if it is too short to be read
+     */
+    public long hash(CharSequence line) {
+        TextNormalizer normalizer = TextNormalizer.forCurrentThread();
+        int length = normalizer.normalize(line);
+        if (length < MIN_LINE_LENGTH) return NOT_A_LINE;
+
+        char[] chars = normalizer.buffer();
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < length; i++) {
+            hash ^= chars[i];
+            hash *= FNV_PRIME;
+        }
+        return hash == NOT_A_LINE ? 1L : hash;
+    }
+
+    public boolean isSpoken(long lineHash) {
+        // get() rather than containsKey() so a line still in view stays recent
+        return spoken.get(lineHash) != null;
+    }
+
+    public void markSpoken(long lineHash) {
+        spoken.put(lineHash, Boolean.TRUE);
+    }
+
+    /**
+     * Forget a line that was queued but never said, so it is read again while in view
+     */
+    public void markUnspoken(long lineHash) {
+        spoken.remove(lineHash);
+    }
+
+    public int size() {
+        return spoken.size();
+    }
+
+    public void reset() {
+        spoken.clear();
+    }
+}
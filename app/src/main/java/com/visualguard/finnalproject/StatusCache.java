@@ -0,0 +1,359 @@
+package com.visualguard.finnalproject;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Caches the Open-Meteo place name and weather behind StatusManager, keyed by a coarse
+ * location cell, so a repeated status request is answered without network and still
+ * works offline. Each part has its own lifetime: the place name PLACE_TTL_MS, current
+ * weather WEATHER_TTL_MS and the daily forecast until local midnight. When a refresh
+ * fails the expired values are returned anyway, with their fetch time so the caller
+ * can say "as of", and the network is left alone for a growing backoff so answers
+ * while offline stay instant. Persisted as JSON in one file.
+ *
+ * The base URLs are injectable so tests can point it at a local server.
+ */
+public class StatusCache {
+    public static final String GEOCODING_URL = "https://geocoding-api.open-meteo.com/v1/reverse";
+    public static final String FORECAST_URL = "https://api.open-meteo.com/v1/forecast";
+
+    public static final long PLACE_TTL_MS = 6 * 60 * 60 * 1000L;
+    public static final long WEATHER_TTL_MS = 10 * 60 * 1000L;
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+    // Roughly 1 km; place and weather do not change within a cell
+    private static final double CELL_DEGREES = 0.01;
+    private static final int MAX_CELLS = 32;
+    private static final int TIMEOUT_MS = 4000;
+    // After a failed request no other is tried for this long, doubling up to the maximum
+    static final long RETRY_BACKOFF_MS = 30 * 1000L;
+    static final long MAX_RETRY_BACKOFF_MS = 10 * 60 * 1000L;
+
+    /**
+     * What is known for one cell. Times are wall-clock ms; 0 means never fetched.
+     */
+    public static class Status {
+        public String place;
+        public long placeFetchedAt;
+
+        public double temperature = Double.NaN;
+        public int weatherCode = -1;
+        public int humidity = -1;
+        public long weatherFetchedAt;
+
+        public int dailyCode = -1;
+        public double dailyMax = Double.NaN;
+        public double dailyMin = Double.NaN;
+        public long dailyValidUntil;
+
+        public boolean hasWeather() {
+            return weatherFetchedAt > 0;
+        }
+
+        /**
+         * Current weather is older than its lifetime (a refresh failed)
+         */
+        public boolean isWeatherStale(long now) {
+            return now - weatherFetchedAt > WEATHER_TTL_MS;
+        }
+
+        public boolean hasDaily(long now) {
+            return dailyValidUntil > now;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            if (place != null) json.put("place", place);
+            json.put("placeAt", placeFetchedAt);
+            if (!Double.isNaN(temperature)) json.put("temp", temperature);
+            json.put("code", weatherCode);
+            json.put("humidity", humidity);
+            json.put("weatherAt", weatherFetchedAt);
+            json.put("dailyCode", dailyCode);
+            if (!Double.isNaN(dailyMax)) json.put("max", dailyMax);
+            if (!Double.isNaN(dailyMin)) json.put("min", dailyMin);
+            json.put("dailyUntil", dailyValidUntil);
+            return json;
+        }
+
+        static Status fromJson(JSONObject json) {
+            Status status = new Status();
+            status.place = json.has("place") ? json.optString("place") : null;
+            status.placeFetchedAt = json.optLong("placeAt", 0);
+            status.temperature = json.optDouble("temp", Double.NaN);
+            status.weatherCode = json.optInt("code", -1);
+            status.humidity = json.optInt("humidity", -1);
+            status.weatherFetchedAt = json.optLong("weatherAt", 0);
+            status.dailyCode = json.optInt("dailyCode", -1);
+            status.dailyMax = json.optDouble("max", Double.NaN);
+            status.dailyMin = json.optDouble("min", Double.NaN);
+            status.dailyValidUntil = json.optLong("dailyUntil", 0);
+            return status;
+        }
+    }
+
+    private final File file;
+    private final String geocodingUrl;
+    private final String forecastUrl;
+    // Guarded by this; a cell is moved to the end when used, so the first is evicted first
+    private final LinkedHashMap<String, Status> cells = new LinkedHashMap<>();
+    private String lastCell;
+    private boolean loaded = false;
+    private String lastError;
+    private int failures = 0;
+    private long retryAt = 0;
+
+    public StatusCache(File file) {
+        this(file, GEOCODING_URL, FORECAST_URL);
+    }
+
+    public StatusCache(File file, String geocodingUrl, String forecastUrl) {
+        this.file = file;
+        this.geocodingUrl = geocodingUrl;
+        this.forecastUrl = forecastUrl;
+    }
+
+    public static String cellKey(double lat, double lon) {
+        return String.format(Locale.ROOT, "%.2f,%.2f",
+                Math.round(lat / CELL_DEGREES) * CELL_DEGREES,
+                Math.round(lon / CELL_DEGREES) * CELL_DEGREES);
+    }
+
+    /**
+     * Status for a location, refreshing only the parts that have expired. Blocks on
+     * network when a refresh is due and no recent request failed; call off the main thread.
+     */
+    public synchronized Status get(double lat, double lon, long now) {
+        ensureLoaded();
+        String key = cellKey(lat, lon);
+        Status status = cells.get(key);
+        if (status == null) status = new Status();
+        boolean changed = false;
+
+        if ((status.place == null || now - status.placeFetchedAt > PLACE_TTL_MS) && now >= retryAt) {
+            String place = fetchPlace(lat, lon, now);
+            if (place != null) {
+                status.place = place;
+                status.placeFetchedAt = now;
+                changed = true;
+            }
+        }
+        if ((!status.hasWeather() || status.isWeatherStale(now) || !status.hasDaily(now)) && now >= retryAt) {
+            changed |= fetchForecast(lat, lon, now, status);
+        }
+
+        // Nothing known about a new cell yet; keep the last one with data as last known
+        if (!changed && !cells.containsKey(key)) return status;
+
+        // Used cells move to the end, so the least recently used is evicted first
+        if (changed || !key.equals(lastCell)) {
+            cells.remove(key);
+            cells.put(key, status);
+            lastCell = key;
+            trim();
+            save();
+        }
+        return status;
+    }
+
+    /**
+     * Whatever was last cached, without network, for when the location is unknown;
+     * null if nothing is cached
+     */
+    public synchronized Status getLast() {
+        ensureLoaded();
+        return lastCell != null ? cells.get(lastCell) : null;
+    }
+
+    /**
+     * The most recent network or storage failure since the last call, for logging;
+     * null if none
+     */
+    public synchronized String takeLastError() {
+        String error = lastError;
+        lastError = null;
+        return error;
+    }
+
+    private void onRequestSucceeded() {
+        failures = 0;
+        retryAt = 0;
+    }
+
+    private void onRequestFailed(long now) {
+        failures++;
+        retryAt = now + Math.min(RETRY_BACKOFF_MS << Math.min(failures - 1, 16), MAX_RETRY_BACKOFF_MS);
+    }
+
+    private String fetchPlace(double lat, double lon, long now) {
+        try {
+            JSONObject json = fetchJson(geocodingUrl + "?latitude=" + lat + "&longitude=" + lon + "&limit=1");
+            onRequestSucceeded();
+            JSONArray results = json.optJSONArray("results");
+            if (results == null || results.length() == 0) return null;
+            JSONObject result = results.optJSONObject(0);
+            if (result == null || !result.has("name")) return null;
+            String name = result.optString("name");
+            return result.has("country") ? name + ", " + result.optString("country") : name;
+        } catch (IOException | JSONException e) {
+            lastError = "Reverse geocoding failed: " + e;
+            onRequestFailed(now);
+            return null;
+        }
+    }
+
+    /**
+     * Refresh current weather and today's forecast in place; false if the request failed
+     */
+    private boolean fetchForecast(double lat, double lon, long now, Status status) {
+        JSONObject root;
+        try {
+            root = fetchJson(forecastUrl + "?latitude=" + lat + "&longitude=" + lon
+                    + "&current_weather=true"
+                    + "&hourly=relativehumidity_2m"
+                    + "&daily=weathercode,temperature_2m_max,temperature_2m_min"
+                    + "&timezone=auto");
+            onRequestSucceeded();
+        } catch (IOException | JSONException e) {
+            lastError = "Forecast failed: " + e;
+            onRequestFailed(now);
+            return false;
+        }
+
+        JSONObject current = root.optJSONObject("current_weather");
+        if (current == null) return false;
+        status.temperature = current.optDouble("temperature", Double.NaN);
+        status.weatherCode = current.optInt("weathercode", -1);
+        status.humidity = findHumidity(root.optJSONObject("hourly"), current.optString("time", null));
+        status.weatherFetchedAt = now;
+
+        JSONObject daily = root.optJSONObject("daily");
+        JSONArray codes = daily != null ? daily.optJSONArray("weathercode") : null;
+        if (codes != null && codes.length() > 0) {
+            JSONArray max = daily.optJSONArray("temperature_2m_max");
+            JSONArray min = daily.optJSONArray("temperature_2m_min");
+            status.dailyCode = codes.optInt(0, -1);
+            status.dailyMax = max != null ? max.optDouble(0, Double.NaN) : Double.NaN;
+            status.dailyMin = min != null ? min.optDouble(0, Double.NaN) : Double.NaN;
+            status.dailyValidUntil = nextMidnight(now, root.optLong("utc_offset_seconds", 0) * 1000);
+        }
+        return true;
+    }
+
+    // Hourly humidity at the time of the current observation
+    private static int findHumidity(JSONObject hourly, String time) {
+        if (hourly == null || time == null) return -1;
+        JSONArray times = hourly.optJSONArray("time");
+        JSONArray values = hourly.optJSONArray("relativehumidity_2m");
+        if (times == null || values == null) return -1;
+        for (int i = 0; i < times.length(); i++) {
+            if (time.equals(times.optString(i))) {
+                double humidity = values.optDouble(i, Double.NaN);
+                return Double.isNaN(humidity) ? -1 : (int) Math.round(humidity);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Start of the next day at the location, given its offset from UTC
+     */
+    static long nextMidnight(long now, long utcOffsetMs) {
+        long local = now + utcOffsetMs;
+        return local - Math.floorMod(local, DAY_MS) + DAY_MS - utcOffsetMs;
+    }
+
+    private static JSONObject fetchJson(String url) throws IOException, JSONException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        conn.setRequestMethod("GET");
+        conn.setConnectTimeout(TIMEOUT_MS);
+        conn.setReadTimeout(TIMEOUT_MS);
+        try {
+            if (conn.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException("HTTP " + conn.getResponseCode() + " from " + url);
+            }
+            return new JSONObject(readAll(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8)));
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    private static String readAll(InputStreamReader reader) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        try (BufferedReader in = new BufferedReader(reader)) {
+            String line;
+            while ((line = in.readLine()) != null) sb.append(line);
+        }
+        return sb.toString();
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Status>> it = cells.entrySet().iterator();
+        while (cells.size() > MAX_CELLS && it.hasNext()) {
+            if (it.next().getKey().equals(lastCell)) continue;
+            it.remove();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+        if (!file.exists()) return;
+        try {
+            JSONObject root = new JSONObject(readAll(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)));
+            JSONObject saved = root.optJSONObject("cells");
+            if (saved != null) {
+                Iterator<String> keys = saved.keys();
+                while (keys.hasNext()) {
+                    String key = keys.next();
+                    JSONObject cell = saved.optJSONObject(key);
+                    if (cell != null) cells.put(key, Status.fromJson(cell));
+                }
+            }
+            lastCell = root.has("last") ? root.optString("last") : null;
+        } catch (IOException | JSONException e) {
+            lastError = "Ignoring unreadable status cache: " + e;
+            cells.clear();
+            lastCell = null;
+        }
+    }
+
+    // Written to a temporary file and renamed, so a crash never leaves half a cache
+    private void save() {
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            JSONObject saved = new JSONObject();
+            for (Map.Entry<String, Status> cell : cells.entrySet()) {
+                saved.put(cell.getKey(), cell.getValue().toJson());
+            }
+            JSONObject root = new JSONObject();
+            root.put("cells", saved);
+            if (lastCell != null) root.put("last", lastCell);
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+                out.write(root.toString());
+            }
+            if (!tmp.renameTo(file)) {
+                lastError = "Could not replace " + file;
+            }
+        } catch (IOException | JSONException e) {
+            lastError = "Could not save status cache: " + e;
+        }
+    }
+}
@@ -7,25 +7,18 @@ import android.content.IntentFilter;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.os.BatteryManager;
-import android.os.Handler;
-import android.os.Looper;
-import android.speech.tts.TextToSpeech;
+import android.util.Log;
 
 import androidx.core.content.ContextCompat;
 
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.Locale;
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * StatusManager - uses Open-Meteo free APIs to get place name and weather.
@@ -36,40 +29,32 @@ import java.util.concurrent.Executors;
  * Notes:
  *  - Open-Meteo geocoding: https://geocoding-api.open-meteo.com/v1/reverse
  *  - Open-Meteo forecast: https://api.open-meteo.com/v1/forecast
+ *  - Results are cached per location cell by StatusCache, so repeated requests are
+ *    answered without network and still work offline.
  */
 public class StatusManager {
 
+    private static final String TAG = "StatusManager";
+    private static final float SPEECH_RATE = 1.05f;
+    // A newer readout replaces one still waiting; the time in it is stale after this long
+    private static final String SPEECH_KEY = "status";
+    private static final long READOUT_MAX_DELAY_MS = 30_000L;
+
     private final Context ctx;
-    private TextToSpeech tts;
+    private final SpeechService speech;
     private final ExecutorService bg;
-    private final Handler mainHandler;
     private final FusedLocationProviderClient fusedLocationClient;
+    private final StatusCache statusCache;
 
     public StatusManager(Context context) {
         this.ctx = context.getApplicationContext();
         this.bg = Executors.newSingleThreadExecutor();
-        this.mainHandler = new Handler(Looper.getMainLooper());
         this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(ctx);
-        initTts();
-    }
-
-    private void initTts() {
-        tts = new TextToSpeech(ctx, status -> {
-            if (status == TextToSpeech.SUCCESS) {
-                tts.setLanguage(Locale.ENGLISH);
-                tts.setSpeechRate(1.05f);
-            }
-        });
+        this.speech = SpeechService.getInstance(ctx);
+        this.statusCache = new StatusCache(new File(ctx.getFilesDir(), "status_cache.json"));
     }
 
     public void shutdown() {
-        try {
-            if (tts != null) {
-                tts.stop();
-                tts.shutdown();
-                tts = null;
-            }
-        } catch (Exception ignored) {}
         bg.shutdownNow();
     }
 
@@ -103,7 +88,8 @@ public class StatusManager {
                 double[] coords = null;
                 if (ContextCompat.checkSelfPermission(ctx, Manifest.permission.ACCESS_FINE_LOCATION)
                         == PackageManager.PERMISSION_GRANTED) {
-                    final Object lock = new Object();
+                    // A latch, unlike wait/notify, does not miss a callback that arrives first
+                    final CountDownLatch located = new CountDownLatch(1);
                     final double[] out = new double[]{Double.NaN, Double.NaN};
                     fusedLocationClient.getLastLocation()
                             .addOnSuccessListener(location -> {
@@ -111,120 +97,34 @@ public class StatusManager {
                                     out[0] = location.getLatitude();
                                     out[1] = location.getLongitude();
                                 }
-                                synchronized (lock) { lock.notify(); }
+                                located.countDown();
                             })
-                            .addOnFailureListener(e -> synchronizedNotify(lock));
+                            .addOnFailureListener(e -> located.countDown());
                     // wait briefly for callback
-                    try { synchronized (lock) { lock.wait(1500); } } catch (Exception ignored) {}
+                    try { located.await(1500, TimeUnit.MILLISECONDS); } catch (InterruptedException ignored) {}
                     if (!Double.isNaN(out[0])) coords = new double[]{out[0], out[1]};
                 }
 
-                if (coords == null) {
-                    // no location permission or failed -> we can't reliably call Open-Meteo with lat/lon
-                    postSpeakNoWeather(fHour, fMinute, batteryPct);
-                    return;
+                StatusCache.Status status;
+                long now = System.currentTimeMillis();
+                if (coords != null) {
+                    // Answered from cache unless a part has expired; stale values if offline
+                    status = statusCache.get(coords[0], coords[1], now);
+                } else {
+                    // No location: the last place we know about, however old
+                    status = statusCache.getLast();
+                }
+                String error = statusCache.takeLastError();
+                if (error != null) {
+                    Log.w(TAG, error);
                 }
 
-                double lat = coords[0];
-                double lon = coords[1];
-
-                // 2) reverse geocode with Open-Meteo geocoding API to get place name
-                String place = reverseGeocode(lat, lon); // may be null
-
-                // 3) call Open-Meteo forecast with proper params
-                String forecastUrl = "https://api.open-meteo.com/v1/forecast?latitude=" + lat
-                        + "&longitude=" + lon
-                        + "&current_weather=true"
-                        + "&hourly=relativehumidity_2m"
-                        + "&daily=weathercode,temperature_2m_max,temperature_2m_min"
-                        + "&timezone=auto";
-
-                URL u = new URL(forecastUrl);
-                HttpURLConnection conn = (HttpURLConnection) u.openConnection();
-                conn.setRequestMethod("GET");
-                BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                StringBuilder sb = new StringBuilder();
-                String line;
-                while ((line = in.readLine()) != null) sb.append(line);
-                in.close();
-
-                JSONObject root = new JSONObject(sb.toString());
-
-                // parse current weather
-                if (!root.has("current_weather")) {
+                if (status == null || !status.hasWeather()) {
                     postSpeakNoWeather(fHour, fMinute, batteryPct);
                     return;
                 }
-                JSONObject current = root.getJSONObject("current_weather");
-                double temp = current.optDouble("temperature", Double.NaN);
-                String currentTime = current.optString("time", null);
-                int weatherCode = current.optInt("weathercode", -1);
-                String shortDesc = mapWeatherCodeToPhrase(weatherCode);
-
-                // find humidity from hourly arrays by matching time
-                int humidity = -1;
-                if (root.has("hourly")) {
-                    JSONObject hourly = root.getJSONObject("hourly");
-                    JSONArray times = hourly.optJSONArray("time");
-                    JSONArray humidArr = hourly.optJSONArray("relativehumidity_2m");
-                    if (times != null && humidArr != null && currentTime != null) {
-                        for (int i = 0; i < times.length(); i++) {
-                            if (currentTime.equals(times.optString(i))) {
-                                double h = humidArr.optDouble(i, Double.NaN);
-                                if (!Double.isNaN(h)) humidity = (int) Math.round(h);
-                                break;
-                            }
-                        }
-                    }
-                }
-
-                // daily summary: weathercode index 0 is today, and min/max temps
-                String dailySummary = "";
-                if (root.has("daily")) {
-                    JSONObject daily = root.getJSONObject("daily");
-                    JSONArray dCodes = daily.optJSONArray("weathercode");
-                    JSONArray tMax = daily.optJSONArray("temperature_2m_max");
-                    JSONArray tMin = daily.optJSONArray("temperature_2m_min");
-                    if (dCodes != null && dCodes.length() > 0) {
-                        int todayCode = dCodes.optInt(0, -1);
-                        String dailyPhrase = mapWeatherCodeToPhrase(todayCode);
-                        String temps = "";
-                        if (tMax != null && tMin != null) {
-                            double max = tMax.optDouble(0, Double.NaN);
-                            double min = tMin.optDouble(0, Double.NaN);
-                            if (!Double.isNaN(max) && !Double.isNaN(min)) {
-                                temps = " High " + Math.round(max) + "°, low " + Math.round(min) + "°.";
-                            }
-                        }
-                        dailySummary = dailyPhrase + temps;
-                    }
-                }
 
-                // decide advice
-                boolean good = isGoodWeatherByCode(weatherCode);
-
-                // CẬP NHẬT PHẦN NÀY: Xây dựng câu thông báo mới với vị trí, thời tiết VÀ PIN
-                String timePart = fHour + " hours " + fMinute + " minutes";
-                String humidityPart = (humidity >= 0) ? (", humidity " + humidity + " percent") : "";
-                String tempPart = !Double.isNaN(temp) ? (Math.round(temp) + " degrees") : "temperature unknown";
-                String batteryPart = (batteryPct >= 0) ? (" Battery is " + batteryPct + " percent.") : "";
-
-                String sentence;
-                if (place != null) {
-                    // Nếu có thông tin vị trí
-                    sentence = "It is " + timePart + ". Your current location is " + place + ". The weather here is " + shortDesc
-                            + ", " + tempPart + humidityPart + "." + batteryPart + " Today: " + dailySummary;
-                } else {
-                    // Nếu không có thông tin vị trí
-                    sentence = "It is " + timePart + ". The weather is " + shortDesc
-                            + ", " + tempPart + humidityPart + "." + batteryPart + " Today: " + dailySummary;
-                }
-                sentence += good ? " Have a nice day." : " Avoid going outside.";
-
-                final String toSpeak = sentence;
-                mainHandler.post(() -> {
-                    if (tts != null) tts.speak(toSpeak, TextToSpeech.QUEUE_FLUSH, null, "status-speak");
-                });
+                speakReadout(buildSentence(status, coords != null, now, fHour, fMinute, batteryPct));
 
             } catch (Exception e) {
                 e.printStackTrace();
@@ -238,39 +138,57 @@ public class StatusManager {
         String timePart = hour + " hours " + minute + " minutes";
         String batteryPart = (batteryPct >= 0) ? (" Battery is " + batteryPct + " percent.") : "";
         String sentence = "It is " + timePart + ". Weather not available." + batteryPart;
-        final String toSpeak = sentence;
-        mainHandler.post(() -> {
-            if (tts != null) tts.speak(toSpeak, TextToSpeech.QUEUE_FLUSH, null, "status-speak-fail");
-        });
+        speakReadout(sentence);
     }
 
-    // reverse geocode using Open-Meteo geocoding API
-    private String reverseGeocode(double lat, double lon) {
-        try {
-            String urlStr = "https://geocoding-api.open-meteo.com/v1/reverse?latitude="
-                    + lat + "&longitude=" + lon + "&limit=1";
-            URL u = new URL(urlStr);
-            HttpURLConnection conn = (HttpURLConnection) u.openConnection();
-            conn.setRequestMethod("GET");
-            BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            StringBuilder sb = new StringBuilder(); String line;
-            while ((line = in.readLine()) != null) sb.append(line);
-            in.close();
-            JSONObject j = new JSONObject(sb.toString());
-            if (j.has("results")) {
-                JSONArray arr = j.getJSONArray("results");
-                if (arr.length() > 0) {
-                    JSONObject r = arr.getJSONObject(0);
-                    String name = r.optString("name", null);
-                    String country = r.optString("country", null);
-                    if (name != null && country != null) return name + ", " + country;
-                    if (name != null) return name;
-                }
+    private void speakReadout(String sentence) {
+        speech.speak(sentence, Utterance.Priority.INFO, SPEECH_RATE, SPEECH_KEY, READOUT_MAX_DELAY_MS);
+    }
+
+    private String buildSentence(StatusCache.Status status, boolean located, long now,
+                                 int hour, int minute, int batteryPct) {
+        String shortDesc = mapWeatherCodeToPhrase(status.weatherCode);
+
+        // daily summary: today's weathercode and min/max temps, while still today
+        String dailySummary = "";
+        if (status.hasDaily(now)) {
+            String temps = "";
+            if (!Double.isNaN(status.dailyMax) && !Double.isNaN(status.dailyMin)) {
+                temps = " High " + Math.round(status.dailyMax) + "°, low " + Math.round(status.dailyMin) + "°.";
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+            dailySummary = mapWeatherCodeToPhrase(status.dailyCode) + temps;
         }
-        return null;
+
+        // decide advice
+        boolean good = isGoodWeatherByCode(status.weatherCode);
+
+        String timePart = hour + " hours " + minute + " minutes";
+        String humidityPart = (status.humidity >= 0) ? (", humidity " + status.humidity + " percent") : "";
+        String tempPart = !Double.isNaN(status.temperature) ? (Math.round(status.temperature) + " degrees") : "temperature unknown";
+        String batteryPart = (batteryPct >= 0) ? (" Battery is " + batteryPct + " percent.") : "";
+
+        // Weather that could not be refreshed is reported with the time it was fetched
+        String weatherIntro;
+        if (status.isWeatherStale(now)) {
+            java.util.Calendar fetched = java.util.Calendar.getInstance();
+            fetched.setTimeInMillis(status.weatherFetchedAt);
+            weatherIntro = " As of " + fetched.get(java.util.Calendar.HOUR_OF_DAY) + " hours "
+                    + fetched.get(java.util.Calendar.MINUTE) + " minutes, the weather "
+                    + (status.place != null ? "in " + status.place + " " : "") + "was ";
+        } else if (status.place != null) {
+            weatherIntro = (located ? " Your current location is " : " Your last known location is ")
+                    + status.place + ". The weather here is ";
+        } else {
+            weatherIntro = " The weather is ";
+        }
+
+        String sentence = "It is " + timePart + "." + weatherIntro + shortDesc
+                + ", " + tempPart + humidityPart + "." + batteryPart;
+        if (!dailySummary.isEmpty()) {
+            sentence += " Today: " + dailySummary;
+        }
+        sentence += good ? " Have a nice day." : " Avoid going outside.";
+        return sentence;
     }
 
     // heuristic: good vs bad weather
@@ -301,8 +219,4 @@ public class StatusManager {
         }
     }
 
-    // helper to avoid repeating synchronized code
-    private static void synchronizedNotify(Object lock) {
-        try { synchronized (lock) { lock.notify(); } } catch (Exception ignored) {}
-    }
 }
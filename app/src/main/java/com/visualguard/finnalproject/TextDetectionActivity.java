@@ -5,7 +5,6 @@ import android.Manifest;
 import android.content.pm.PackageManager;
 import android.media.Image;
 import android.os.Bundle;
-import android.speech.tts.TextToSpeech;
 import android.util.Log;
 import android.widget.Toast;
 
@@ -23,9 +22,10 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.mlkit.vision.common.InputImage;
 import com.google.mlkit.vision.text.Text;
 import com.google.mlkit.vision.text.TextRecognition;
+import com.google.mlkit.vision.text.TextRecognizer;
 import com.google.mlkit.vision.text.latin.TextRecognizerOptions;
 
-import java.util.Locale;
+import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -33,13 +33,23 @@ public class TextDetectionActivity extends AppCompatActivity {
 
     private static final int REQ_CAMERA = 2003;
     private PreviewView previewView;
-    private TextToSpeech tts;
+    private SpeechService speech;
     private ExecutorService cameraExecutor;
-
-    // Biến để quản lý việc đọc
-    private String lastDetectedText = "";
-    private long lastReadTime = 0;
-    private static final long READ_COOLDOWN = 4000; // 8 giây chờ giữa các lần đọc
+    private TextRecognizer textRecognizer;
+
+    // OCR only runs when the view has changed; a still scene is re-read at most every 2 s
+    private final FrameChangeDetector frameChangeDetector = new FrameChangeDetector(6f, 2000);
+
+    // Lines already read aloud; only new lines are queued to TTS
+    private static final int SPOKEN_LINE_CAPACITY = 500;
+    private final SpokenLineTracker spokenLines = new SpokenLineTracker(SPOKEN_LINE_CAPACITY);
+    private static final int MAX_UTTERANCE_LENGTH = 600;
+    // Text still waiting after this long is probably no longer in view
+    private static final long READ_MAX_DELAY_MS = 8000;
+    // Each read gets its own key under this prefix, so reads never merge but can be cancelled
+    private static final String SPEECH_KEY_PREFIX = "text:";
+    private int readCount = 0;
+    private final OcrLineOrder lineOrder = new OcrLineOrder();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -48,14 +58,11 @@ public class TextDetectionActivity extends AppCompatActivity {
 
         previewView = findViewById(R.id.previewView);
 
-        tts = new TextToSpeech(this, status -> {
-            if (status == TextToSpeech.SUCCESS) {
-                tts.setLanguage(Locale.ENGLISH);
-                speak("Text reading started. Point camera at text.");
-            }
-        });
+        speech = SpeechService.getInstance(this);
+        speech.speak("Text reading started. Point camera at text.", Utterance.Priority.NAVIGATION);
 
         cameraExecutor = Executors.newSingleThreadExecutor();
+        textRecognizer = TextRecognition.getClient(TextRecognizerOptions.DEFAULT_OPTIONS);
 
         if (ContextCompat.checkSelfPermission(this, Manifest.permission.CAMERA) != PackageManager.PERMISSION_GRANTED) {
             ActivityCompat.requestPermissions(this, new String[]{Manifest.permission.CAMERA}, REQ_CAMERA);
@@ -95,11 +102,19 @@ public class TextDetectionActivity extends AppCompatActivity {
                                 return;
                             }
 
+                            // Skip OCR when the camera sees the same thing as last time
+                            ImageProxy.PlaneProxy luma = imageProxy.getPlanes()[0];
+                            if (!frameChangeDetector.shouldProcess(luma.getBuffer(), luma.getRowStride(),
+                                    luma.getPixelStride(), imageProxy.getWidth(), imageProxy.getHeight(),
+                                    System.currentTimeMillis())) {
+                                imageProxy.close();
+                                return;
+                            }
+
                             InputImage inputImage = InputImage.fromMediaImage(mediaImage,
                                     imageProxy.getImageInfo().getRotationDegrees());
 
-                            TextRecognition.getClient(TextRecognizerOptions.DEFAULT_OPTIONS)
-                                    .process(inputImage)
+                            textRecognizer.process(inputImage)
                                     .addOnSuccessListener(text -> {
                                         // Thu thập toàn bộ văn bản từ tất cả các dòng và đoạn
                                         processCompleteText(text);
@@ -128,95 +143,75 @@ public class TextDetectionActivity extends AppCompatActivity {
     }
 
     private void processCompleteText(Text text) {
-        // Xây dựng toàn bộ văn bản từ tất cả các khối (blocks), dòng (lines) và phần tử (elements)
-        StringBuilder fullText = new StringBuilder();
-
-        for (Text.TextBlock block : text.getTextBlocks()) {
-            for (Text.Line line : block.getLines()) {
-                String lineText = line.getText();
-                if (lineText != null && !lineText.trim().isEmpty()) {
-                    if (fullText.length() > 0) {
-                        fullText.append(" "); // Thêm khoảng trắng giữa các dòng
-                    }
-                    fullText.append(lineText.trim());
-                }
+        // Chỉ đọc những dòng chưa được đọc trước đó
+        StringBuilder newText = new StringBuilder();
+        int newLines = 0;
+        long[] lineHashes = new long[8];
+
+        // Columns are read one after another instead of in ML Kit's block order
+        for (Text.Line line : lineOrder.linesInReadingOrder(text)) {
+            String lineText = line.getText();
+            if (lineText == null) continue;
+
+            long lineHash = spokenLines.hash(lineText);
+            if (lineHash == SpokenLineTracker.NOT_A_LINE || spokenLines.isSpoken(lineHash)) continue;
+
+            // Lines that do not fit stay unspoken and are read with the next result
+            String trimmed = lineText.trim();
+            if (newText.length() > 0 && newText.length() + trimmed.length() + 1 > MAX_UTTERANCE_LENGTH) {
+                break;
             }
-        }
-
-        String currentText = fullText.toString().trim();
-
-        // Bỏ qua nếu không có văn bản hoặc quá ngắn
-        if (currentText.isEmpty() || currentText.length() < 10) {
-            return;
-        }
-
-        // Kiểm tra xem văn bản có đủ khác biệt so với lần trước không
-        long currentTime = System.currentTimeMillis();
-        boolean isDifferentEnough = isTextDifferentEnough(currentText, lastDetectedText);
-
-        // Chỉ đọc nếu văn bản khác biệt đáng kể và đã đủ thời gian chờ
-        if (isDifferentEnough && (currentTime - lastReadTime) > READ_COOLDOWN) {
-            // Giới hạn độ dài văn bản để tránh quá dài
-            String textToRead = currentText;
-            if (textToRead.length() > 600) {
-                textToRead = textToRead.substring(0, 600) + "...";
+            if (newText.length() > 0) {
+                newText.append(" ");
             }
-
-            speak(textToRead);
-            lastDetectedText = currentText;
-            lastReadTime = currentTime;
-
-            Log.d("TextDetection", "Reading text: " + textToRead);
-        }
-    }
-
-    private boolean isTextDifferentEnough(String newText, String oldText) {
-        if (oldText == null || oldText.isEmpty()) {
-            return true;
-        }
-
-        // Tính toán độ tương đồng đơn giản
-        int minLength = Math.min(newText.length(), oldText.length());
-        if (minLength == 0) return true;
-
-        int sameChars = 0;
-        for (int i = 0; i < Math.min(newText.length(), oldText.length()); i++) {
-            if (newText.charAt(i) == oldText.charAt(i)) {
-                sameChars++;
+            newText.append(trimmed);
+            spokenLines.markSpoken(lineHash);
+            if (newLines == lineHashes.length) {
+                lineHashes = Arrays.copyOf(lineHashes, newLines * 2);
             }
+            lineHashes[newLines++] = lineHash;
         }
 
-        double similarity = (double) sameChars / minLength;
+        if (newLines == 0) {
+            return;
+        }
 
-        // Coi là khác biệt nếu độ tương đồng dưới 70%
-        return similarity < 0.7;
+        speak(newText.toString(), Arrays.copyOf(lineHashes, newLines));
+        Log.d("TextDetection", "Reading " + newLines + " new lines: " + newText);
     }
 
-    private void speak(String text) {
-        if (tts != null) {
-            // Sử dụng QUEUE_ADD thay vì QUEUE_FLUSH để không cắt ngang nếu đang nói
-            tts.speak(text, TextToSpeech.QUEUE_ADD, null, "text-detection");
-        }
+    /**
+     * Read text is queued behind, never over, whatever is being said. Its lines count as
+     * spoken from now on; if the read expires behind a long queue or is cut off, they are
+     * forgotten again so the next pass reads them while they are still in view.
+     */
+    private void speak(String text, long[] lineHashes) {
+        speech.speak(text, Utterance.Priority.INFO, Utterance.DEFAULT_RATE,
+                SPEECH_KEY_PREFIX + (readCount++), READ_MAX_DELAY_MS,
+                dropped -> runOnUiThread(() -> {
+                    for (long lineHash : lineHashes) spokenLines.markUnspoken(lineHash);
+                }));
     }
 
     @Override
     protected void onPause() {
         super.onPause();
-        if (tts != null) {
-            tts.stop();
-        }
+        // Speech is cut off below, so read everything again on return
+        spokenLines.reset();
+        frameChangeDetector.reset();
+        speech.cancel(SPEECH_KEY_PREFIX);
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (tts != null) {
-            tts.stop();
-            tts.shutdown();
-        }
         if (cameraExecutor != null) {
             cameraExecutor.shutdown();
         }
+        if (textRecognizer != null) {
+            textRecognizer.close();
+        }
+        Log.d("TextDetection", "Frames skipped without OCR: " + frameChangeDetector.getSkippedCount());
     }
 
     @Override
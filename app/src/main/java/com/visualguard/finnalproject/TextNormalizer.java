@@ -0,0 +1,123 @@
+package com.visualguard.finnalproject;
+
+import java.util.Locale;
+
+/**
+ * Single-pass text normalizer for matching: lower-cases, strips diacritics, turns
+ * everything that is not a-z / 0-9 into a separator and collapses separators into
+ * one space, without leading or trailing space. Same result as lower-casing,
+ * NFD-decomposing, dropping marks and replacing [^a-z0-9] with spaces (except that
+ * đ, ø and ł fold to d, o and l), but done with one table lookup per char into a
+ * reusable buffer.
+ *
+ * An instance is not thread-safe; use forCurrentThread() from shared code.
+ */
+public class TextNormalizer {
+    // Chars up to and including Latin Extended Additional (Vietnamese) are folded by table
+    private static final int TABLE_SIZE = 0x1F00;
+    private static final char SEPARATOR = 0;
+    private static final char DROP = 1;
+    private static final char[] FOLD = buildTable();
+
+    private static final ThreadLocal<TextNormalizer> PER_THREAD = new ThreadLocal<TextNormalizer>() {
+        @Override
+        protected TextNormalizer initialValue() {
+            return new TextNormalizer();
+        }
+    };
+
+    private char[] buffer = new char[256];
+    private int length;
+
+    public static TextNormalizer forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Normalized copy of text as a String, e.g. for dictionary entries built once
+     */
+    public static String normalizeToString(CharSequence text) {
+        TextNormalizer normalizer = forCurrentThread();
+        normalizer.normalize(text);
+        return normalizer.toString();
+    }
+
+    /**
+     * Normalize text into this instance's buffer and return the normalized length.
+     * The result is valid until the next call.
+     */
+    public int normalize(CharSequence text) {
+        length = 0;
+        if (text == null) return 0;
+        int n = text.length();
+        if (buffer.length < n) {
+            buffer = new char[Math.max(n, buffer.length * 2)];
+        }
+
+        boolean pendingSeparator = false;
+        for (int i = 0; i < n; i++) {
+            char folded = fold(text.charAt(i));
+            if (folded == DROP) continue;
+            if (folded == SEPARATOR) {
+                pendingSeparator = length > 0;
+                continue;
+            }
+            if (pendingSeparator) {
+                buffer[length++] = ' ';
+                pendingSeparator = false;
+            }
+            buffer[length++] = folded;
+        }
+        return length;
+    }
+
+    public char[] buffer() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public char charAt(int index) {
+        return buffer[index];
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length);
+    }
+
+    private static char fold(char c) {
+        if (c < TABLE_SIZE) return FOLD[c];
+        // Outside the table only marks are dropped; other scripts are not matched
+        return Character.getType(c) == Character.NON_SPACING_MARK ? DROP : SEPARATOR;
+    }
+
+    /**
+     * Fold every char once, at class load, through the slow regex-based path
+     */
+    private static char[] buildTable() {
+        char[] table = new char[TABLE_SIZE];
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            String t = String.valueOf((char) c).toLowerCase(Locale.ROOT);
+            t = java.text.Normalizer.normalize(t, java.text.Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}", "");
+            if (t.isEmpty()) {
+                table[c] = DROP;
+            } else {
+                char first = t.charAt(0);
+                boolean alphanumeric = (first >= 'a' && first <= 'z') || (first >= '0' && first <= '9');
+                table[c] = alphanumeric ? first : SEPARATOR;
+            }
+        }
+        // Letters without a decomposition that labels commonly use
+        table['Đ'] = 'd';
+        table['đ'] = 'd';
+        table['Ø'] = 'o';
+        table['ø'] = 'o';
+        table['Ł'] = 'l';
+        table['ł'] = 'l';
+        return table;
+    }
+}
@@ -0,0 +1,105 @@
+package com.visualguard.finnalproject;
+
+/**
+ * One message for SpeechService: text, how urgent it is and the rate to speak it at.
+ * A message may also carry a coalescing key, so a newer message about the same thing
+ * (an obstacle track, an ingredient) replaces a waiting one, and a deadline after which
+ * it is no longer worth saying. Times are SystemClock.uptimeMillis().
+ * An obstacle alert also lists the fragments its text is made of, so it can be played
+ * from pre-synthesized clips instead of waiting for synthesis.
+ */
+public class Utterance {
+    /**
+     * Told when a message is dropped without being said: it expired, was cancelled or
+     * could not be spoken. Called on whichever thread SpeechService is running on.
+     */
+    public interface DropListener {
+        void onDropped(Utterance utterance);
+    }
+
+    public static final float DEFAULT_RATE = 1.0f;
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * Declared from most to least urgent.
+     *
+     * coalesce: a newer message replaces any of the same priority still waiting, since
+     * only the latest navigation feedback is still true. Obstacle alerts rely on keys
+     * and deadlines instead, so alerts about different objects are not lost.
+     * interruptsSame: a newer message also cuts off one of the same priority being spoken.
+     */
+    public enum Priority {
+        SAFETY(3, false, false),
+        EMERGENCY(2, false, false),
+        NAVIGATION(1, true, true),
+        INFO(0, false, false);
+
+        final int rank;
+        final boolean coalesce;
+        final boolean interruptsSame;
+
+        Priority(int rank, boolean coalesce, boolean interruptsSame) {
+            this.rank = rank;
+            this.coalesce = coalesce;
+            this.interruptsSame = interruptsSame;
+        }
+    }
+
+    public final String text;
+    public final Priority priority;
+    public final float rate;
+    // Null if the message never merges with another
+    public final String key;
+    public final long queuedAt;
+    public final long deadline;
+    // Null if nobody needs to know
+    public final DropListener dropListener;
+    // Pieces of text that can be played back to back instead; null if spoken whole
+    public final String[] fragments;
+
+    public Utterance(String text, Priority priority, float rate) {
+        this(text, priority, rate, null, 0L, NO_DEADLINE);
+    }
+
+    public Utterance(String text, Priority priority, float rate, String key, long queuedAt, long deadline) {
+        this(text, priority, rate, key, queuedAt, deadline, null);
+    }
+
+    public Utterance(String text, Priority priority, float rate, String key, long queuedAt, long deadline,
+                     DropListener dropListener) {
+        this(text, priority, rate, key, queuedAt, deadline, dropListener, null);
+    }
+
+    public Utterance(String text, Priority priority, float rate, String key, long queuedAt, long deadline,
+                     DropListener dropListener, String[] fragments) {
+        this.text = text;
+        this.priority = priority;
+        this.rate = rate;
+        this.key = key;
+        this.queuedAt = queuedAt;
+        this.deadline = deadline;
+        this.dropListener = dropListener;
+        this.fragments = fragments;
+    }
+
+    public boolean isExpired(long now) {
+        return now > deadline;
+    }
+
+    void dropped() {
+        if (dropListener != null) dropListener.onDropped(this);
+    }
+
+    boolean hasKeyPrefix(String prefix) {
+        return key != null && key.startsWith(prefix);
+    }
+
+    boolean sameKey(Utterance other) {
+        return key != null && other != null && key.equals(other.key);
+    }
+
+    @Override
+    public String toString() {
+        return key == null ? priority + ":" + text : priority + ":" + key + ":" + text;
+    }
+}
@@ -0,0 +1,125 @@
+package com.visualguard.finnalproject;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts YUV_420_888 camera frames (as delivered by ImageReader) straight into the
+ * RGB byte layout expected by the detector, rotating and resizing in the same pass.
+ * Plane buffers are read with absolute gets and the sampling tables are kept between
+ * frames, so steady-state conversion does not allocate.
+ */
+public class YuvFrameConverter {
+
+    // Sampling tables, rebuilt only when the frame geometry changes
+    private int tableWidth = -1;
+    private int tableHeight = -1;
+    private int tableRotation = -1;
+    private int tableOutSize = -1;
+    private int tableYRowStride = -1;
+    private int tableUvRowStride = -1;
+    private int tableUvPixelStride = -1;
+
+    private int[] rowOffsetY = new int[0];
+    private int[] rowOffsetUv = new int[0];
+    private int[] colOffsetY = new int[0];
+    private int[] colOffsetUv = new int[0];
+
+    /**
+     * Width of the converted frame once the sensor rotation has been applied
+     */
+    public static int rotatedWidth(int width, int height, int rotationDegrees) {
+        return (rotationDegrees == 90 || rotationDegrees == 270) ? height : width;
+    }
+
+    /**
+     * Height of the converted frame once the sensor rotation has been applied
+     */
+    public static int rotatedHeight(int width, int height, int rotationDegrees) {
+        return (rotationDegrees == 90 || rotationDegrees == 270) ? width : height;
+    }
+
+    /**
+     * Convert a YUV_420_888 frame to an outSize x outSize RGB (HWC, UINT8) image.
+     * The frame is rotated by rotationDegrees (clockwise) so the result is upright,
+     * then resampled with nearest-neighbour to the model input size.
+     *
+     * @param out destination buffer with room for outSize * outSize * 3 bytes, written with absolute puts
+     */
+    public void yuvToRgbResized(ByteBuffer yPlane, ByteBuffer uPlane, ByteBuffer vPlane,
+                                int yRowStride, int uvRowStride, int uvPixelStride,
+                                int width, int height, int rotationDegrees,
+                                ByteBuffer out, int outSize) {
+        ensureTables(yRowStride, uvRowStride, uvPixelStride, width, height, rotationDegrees, outSize);
+
+        // For 90/270 the output x axis walks sensor rows, otherwise it walks sensor columns
+        boolean swapAxes = rotationDegrees == 90 || rotationDegrees == 270;
+        int index = 0;
+
+        for (int oy = 0; oy < outSize; oy++) {
+            for (int ox = 0; ox < outSize; ox++) {
+                int row = swapAxes ? ox : oy;
+                int col = swapAxes ? oy : ox;
+
+                int yValue = yPlane.get(rowOffsetY[row] + colOffsetY[col]) & 0xFF;
+                int uvIndex = rowOffsetUv[row] + colOffsetUv[col];
+                int d = (uPlane.get(uvIndex) & 0xFF) - 128;
+                int e = (vPlane.get(uvIndex) & 0xFF) - 128;
+
+                // BT.601 full-range YUV to RGB using fixed-point arithmetic
+                int r = yValue + ((359 * e) >> 8);
+                int g = yValue - ((88 * d + 183 * e) >> 8);
+                int b = yValue + ((454 * d) >> 8);
+
+                out.put(index++, (byte) (r < 0 ? 0 : (r > 255 ? 255 : r)));
+                out.put(index++, (byte) (g < 0 ? 0 : (g > 255 ? 255 : g)));
+                out.put(index++, (byte) (b < 0 ? 0 : (b > 255 ? 255 : b)));
+            }
+        }
+    }
+
+    /**
+     * Precompute plane offsets for every output row/column. Tables are indexed by the
+     * output axis that walks sensor rows (row tables) or sensor columns (column tables).
+     */
+    private void ensureTables(int yRowStride, int uvRowStride, int uvPixelStride,
+                              int width, int height, int rotationDegrees, int outSize) {
+        if (width == tableWidth && height == tableHeight && rotationDegrees == tableRotation
+                && outSize == tableOutSize && yRowStride == tableYRowStride
+                && uvRowStride == tableUvRowStride && uvPixelStride == tableUvPixelStride) {
+            return;
+        }
+
+        if (rowOffsetY.length != outSize) {
+            rowOffsetY = new int[outSize];
+            rowOffsetUv = new int[outSize];
+            colOffsetY = new int[outSize];
+            colOffsetUv = new int[outSize];
+        }
+
+        // Sensor rows are reversed for 90 and 180, sensor columns for 180 and 270
+        boolean flipRows = rotationDegrees == 90 || rotationDegrees == 180;
+        boolean flipCols = rotationDegrees == 180 || rotationDegrees == 270;
+
+        for (int i = 0; i < outSize; i++) {
+            int sensorRow = (int) ((i + 0.5f) * height / outSize);
+            int sensorCol = (int) ((i + 0.5f) * width / outSize);
+            sensorRow = Math.min(sensorRow, height - 1);
+            sensorCol = Math.min(sensorCol, width - 1);
+            if (flipRows) sensorRow = height - 1 - sensorRow;
+            if (flipCols) sensorCol = width - 1 - sensorCol;
+
+            rowOffsetY[i] = sensorRow * yRowStride;
+            rowOffsetUv[i] = (sensorRow >> 1) * uvRowStride;
+            colOffsetY[i] = sensorCol;
+            colOffsetUv[i] = (sensorCol >> 1) * uvPixelStride;
+        }
+
+        tableWidth = width;
+        tableHeight = height;
+        tableRotation = rotationDegrees;
+        tableOutSize = outSize;
+        tableYRowStride = yRowStride;
+        tableUvRowStride = uvRowStride;
+        tableUvPixelStride = uvPixelStride;
+    }
+}
@@ -0,0 +1,79 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for the obstacle earcon mixer.
+ */
+public class EarconSynthTest {
+    private static final int RATE = 16000;
+
+    private static short[] renderAll(EarconSynth synth, int frames) {
+        short[] out = new short[frames * 2];
+        synth.render(out, frames);
+        return out;
+    }
+
+    private static long energy(short[] stereo, int channel) {
+        long sum = 0;
+        for (int i = channel; i < stereo.length; i += 2) sum += Math.abs(stereo[i]);
+        return sum;
+    }
+
+    private static int zeroCrossings(short[] stereo, int channel) {
+        int crossings = 0;
+        for (int i = channel + 2; i < stereo.length; i += 2) {
+            if ((stereo[i - 2] < 0) != (stereo[i] < 0)) crossings++;
+        }
+        return crossings;
+    }
+
+    @Test
+    public void farLeftZone_isLouderOnTheLeft() {
+        EarconSynth synth = new EarconSynth(RATE);
+        synth.start(440f, EarconSynth.panForHorizontalZone(0), 1f, 1);
+        short[] out = renderAll(synth, RATE / 10);
+
+        assertTrue(energy(out, 0) > 10 * energy(out, 1));
+    }
+
+    @Test
+    public void closerObjects_soundHigher() {
+        assertTrue(EarconSynth.frequencyForDistance(0.1f) > EarconSynth.frequencyForDistance(0.9f));
+
+        EarconSynth near = new EarconSynth(RATE);
+        near.start(EarconSynth.frequencyForDistance(0.1f), 0f, 1f, 1);
+        EarconSynth far = new EarconSynth(RATE);
+        far.start(EarconSynth.frequencyForDistance(0.9f), 0f, 1f, 1);
+
+        assertTrue(zeroCrossings(renderAll(near, RATE / 10), 0)
+                > 2 * zeroCrossings(renderAll(far, RATE / 10), 0));
+    }
+
+    @Test
+    public void cue_endsAfterItsPulses() {
+        EarconSynth synth = new EarconSynth(RATE);
+        synth.start(440f, 0f, 1f, 2);
+        int pulseFrames = RATE * (EarconSynth.TONE_MS + EarconSynth.PULSE_GAP_MS) / 1000;
+
+        renderAll(synth, pulseFrames);
+        assertTrue(synth.isActive());
+        renderAll(synth, RATE * EarconSynth.TONE_MS / 1000);
+        assertFalse(synth.isActive());
+        assertEquals(0, energy(renderAll(synth, 256), 0));
+    }
+
+    @Test
+    public void overlappingCues_areMixedWithoutWrapping() {
+        EarconSynth synth = new EarconSynth(RATE);
+        for (int i = 0; i < 6; i++) synth.start(440f, 0f, 1f, 1);
+        short[] out = renderAll(synth, RATE / 20);
+
+        // In phase and saturated: clipping must not wrap around to the opposite sign
+        for (int i = 2; i < out.length; i += 2) {
+            assertFalse(out[i - 2] > 30000 && out[i] < -30000);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for skipping OCR on near-duplicate frames.
+ */
+public class FrameChangeDetectorTest {
+
+    private static final int WIDTH = 640;
+    private static final int HEIGHT = 480;
+
+    @Test
+    public void identicalFrame_isSkipped() {
+        FrameChangeDetector detector = new FrameChangeDetector(6f, 3000);
+        ByteBuffer frame = pattern(0, 0);
+
+        assertTrue(detector.shouldProcess(frame, WIDTH, 1, WIDTH, HEIGHT, 0));
+        assertFalse(detector.shouldProcess(frame, WIDTH, 1, WIDTH, HEIGHT, 100));
+        assertEquals(1, detector.getSkippedCount());
+    }
+
+    @Test
+    public void exposureShift_isSkipped() {
+        FrameChangeDetector detector = new FrameChangeDetector(6f, 3000);
+
+        assertTrue(detector.shouldProcess(pattern(0, 0), WIDTH, 1, WIDTH, HEIGHT, 0));
+        assertFalse(detector.shouldProcess(pattern(0, 20), WIDTH, 1, WIDTH, HEIGHT, 100));
+    }
+
+    @Test
+    public void movedContent_isProcessed() {
+        FrameChangeDetector detector = new FrameChangeDetector(6f, 3000);
+
+        assertTrue(detector.shouldProcess(pattern(0, 0), WIDTH, 1, WIDTH, HEIGHT, 0));
+        assertTrue(detector.shouldProcess(pattern(40, 0), WIDTH, 1, WIDTH, HEIGHT, 100));
+    }
+
+    @Test
+    public void stillScene_isRefreshedAfterMaxSkip() {
+        FrameChangeDetector detector = new FrameChangeDetector(6f, 1000);
+        ByteBuffer frame = pattern(0, 0);
+
+        assertTrue(detector.shouldProcess(frame, WIDTH, 1, WIDTH, HEIGHT, 0));
+        assertFalse(detector.shouldProcess(frame, WIDTH, 1, WIDTH, HEIGHT, 500));
+        assertTrue(detector.shouldProcess(frame, WIDTH, 1, WIDTH, HEIGHT, 1000));
+    }
+
+    /**
+     * Dark horizontal bands (like lines of text) on a light page, shifted down by
+     * offset rows and brightened by brightness
+     */
+    private static ByteBuffer pattern(int offset, int brightness) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(WIDTH * HEIGHT);
+        for (int y = 0; y < HEIGHT; y++) {
+            boolean dark = ((y + offset) / 30) % 2 == 0;
+            byte value = (byte) ((dark ? 40 : 200) + brightness);
+            for (int x = 0; x < WIDTH; x++) {
+                buffer.put(y * WIDTH + x, value);
+            }
+        }
+        return buffer;
+    }
+}
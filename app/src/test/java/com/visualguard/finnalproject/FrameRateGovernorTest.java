@@ -0,0 +1,92 @@
+package com.visualguard.finnalproject;
+
+import android.os.PowerManager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for pacing detector frames by measured inference time.
+ */
+public class FrameRateGovernorTest {
+
+    private final FrameRateGovernor governor = new FrameRateGovernor();
+
+    @Test
+    public void frame_isDueOncePerInterval() {
+        long interval = governor.getIntervalMs();
+        assertTrue(governor.isFrameDue(1000));
+        governor.startFrame(1000);
+
+        assertFalse(governor.isFrameDue(1000 + interval - 1));
+        assertTrue(governor.isFrameDue(1000 + interval));
+    }
+
+    @Test
+    public void droppedFrame_doesNotUseUpAnInterval() {
+        governor.startFrame(1000);
+        long due = 1000 + governor.getIntervalMs();
+
+        // Due, but not sent for lack of an input buffer: the next frame is still due
+        assertTrue(governor.isFrameDue(due));
+        assertTrue(governor.isFrameDue(due + 33));
+    }
+
+    @Test
+    public void average_coversOnlyTheLatestWindow() {
+        for (int i = 0; i < 16; i++) governor.recordInference(100);
+        assertEquals(100f, governor.getAverageInferenceMs(), 0.01f);
+
+        for (int i = 0; i < 16; i++) governor.recordInference(20);
+        assertEquals(20f, governor.getAverageInferenceMs(), 0.01f);
+    }
+
+    @Test
+    public void interval_followsInferenceTimeAtTargetUtilisation() {
+        settle(70);
+        assertEquals(100, governor.getIntervalMs(), 1);
+    }
+
+    @Test
+    public void interval_isClampedToCameraRateAndOneSecond() {
+        settle(1);
+        assertEquals(FrameRateGovernor.MIN_INTERVAL_MS, governor.getIntervalMs(), 1);
+
+        settle(5000);
+        assertEquals(FrameRateGovernor.MAX_INTERVAL_MS, governor.getIntervalMs(), 1);
+    }
+
+    @Test
+    public void thermalThrottling_lowersUtilisation() {
+        assertEquals(FrameRateGovernor.TARGET_UTILISATION, governor.getTargetUtilisation(), 0.001f);
+
+        governor.setThermalStatus(PowerManager.THERMAL_STATUS_MODERATE);
+        assertEquals(0.4f, governor.getTargetUtilisation(), 0.001f);
+        governor.setThermalStatus(PowerManager.THERMAL_STATUS_SEVERE);
+        assertEquals(0.2f, governor.getTargetUtilisation(), 0.001f);
+        governor.setThermalStatus(PowerManager.THERMAL_STATUS_CRITICAL);
+        assertEquals(0.1f, governor.getTargetUtilisation(), 0.001f);
+
+        governor.setThermalStatus(PowerManager.THERMAL_STATUS_NONE);
+        assertEquals(FrameRateGovernor.TARGET_UTILISATION, governor.getTargetUtilisation(), 0.001f);
+    }
+
+    @Test
+    public void batterySaver_capsUtilisation_andLengthensTheInterval() {
+        governor.setPowerSaveMode(true);
+        assertEquals(0.3f, governor.getTargetUtilisation(), 0.001f);
+
+        // Thermal limits below the battery saver cap still apply
+        governor.setThermalStatus(PowerManager.THERMAL_STATUS_SEVERE);
+        assertEquals(0.2f, governor.getTargetUtilisation(), 0.001f);
+        governor.setThermalStatus(PowerManager.THERMAL_STATUS_NONE);
+
+        settle(60);
+        assertEquals(200, governor.getIntervalMs(), 1);
+    }
+
+    private void settle(long inferenceMs) {
+        for (int i = 0; i < 80; i++) governor.recordInference(inferenceMs);
+    }
+}
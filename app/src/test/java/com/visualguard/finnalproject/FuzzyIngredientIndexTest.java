@@ -0,0 +1,119 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for typo-tolerant ingredient lookup, including an offline run over a
+ * corpus of noisy OCR-like strings.
+ */
+public class FuzzyIngredientIndexTest {
+
+    private static final List<String> NAMES = Arrays.asList(
+            "Sugar", "Trans fat", "Alcohol", "Nicotine", "Peanut", "Gluten",
+            "Shellfish", "Tree Nut", "Lactose", "Soy lecithin", "Monosodium glutamate");
+
+    @Test
+    public void oneCharacterOcrErrors_areFound() {
+        FuzzyIngredientIndex index = new FuzzyIngredientIndex(NAMES);
+
+        assertTrue(index.match("wheat flour, glutcn, salt").contains("Gluten"));
+        assertTrue(index.match("roasted peanul pieces").contains("Peanut"));
+        assertTrue(index.match("monosodium glutamale").contains("Monosodium glutamate"));
+    }
+
+    @Test
+    public void shortAndUnrelatedWords_doNotMatch() {
+        FuzzyIngredientIndex index = new FuzzyIngredientIndex(NAMES);
+
+        assertTrue(index.match("water salt oil rice flour vinegar").isEmpty());
+        assertTrue(index.match("sugor").contains("Sugar"));
+        assertFalse(index.match("sgr").contains("Sugar"));
+    }
+
+    @Test
+    public void aliasesReportCanonicalName() {
+        Map<String, String> aliases = new HashMap<>();
+        aliases.put("soya lecithin", "Soy lecithin");
+        FuzzyIngredientIndex index = new FuzzyIngredientIndex(NAMES, aliases);
+
+        assertTrue(index.match("emulsifier: soya lecitin").contains("Soy lecithin"));
+    }
+
+    @Test
+    public void boundedDistance_stopsAtLimit() {
+        FuzzyIngredientIndex index = new FuzzyIngredientIndex(NAMES);
+        assertEquals(1, index.boundedDistance("glutcn", "gluten", 2));
+        assertEquals(3, index.boundedDistance("gluten", "shellfish", 2));
+    }
+
+    @Test
+    public void noisyCorpus_recall() {
+        NoisyCorpus corpus = new NoisyCorpus(500);
+
+        int hits = 0;
+        for (int i = 0; i < corpus.blocks.size(); i++) {
+            if (corpus.index.match(corpus.blocks.get(i)).contains(corpus.expected.get(i))) hits++;
+        }
+        assertTrue("recall " + hits, hits >= corpus.blocks.size() * 0.95);
+    }
+
+    /**
+     * Offline latency benchmark; timing depends on the machine, so it is run by hand
+     */
+    @Ignore("benchmark")
+    @Test
+    public void noisyCorpus_latencyBenchmark() {
+        NoisyCorpus corpus = new NoisyCorpus(500);
+
+        // Warm up, then time
+        for (String block : corpus.blocks) corpus.index.match(block);
+        long start = System.nanoTime();
+        for (String block : corpus.blocks) corpus.index.match(block);
+        double msPerBlock = (System.nanoTime() - start) / 1e6 / corpus.blocks.size();
+        System.out.printf("fuzzy index: %.3f ms per block%n", msPerBlock);
+    }
+
+    /**
+     * The dictionary plus 3000 random names, and OCR-like blocks of filler words around one
+     * dictionary name with one character substituted
+     */
+    private static class NoisyCorpus {
+        final FuzzyIngredientIndex index;
+        final List<String> blocks = new ArrayList<>();
+        final List<String> expected = new ArrayList<>();
+
+        NoisyCorpus(int count) {
+            Random random = new Random(42);
+            List<String> names = new ArrayList<>(NAMES);
+            for (int i = 0; i < 3000; i++) {
+                names.add(randomWord(random, 6 + random.nextInt(6)) + " " + randomWord(random, 4 + random.nextInt(4)));
+            }
+            index = new FuzzyIngredientIndex(names);
+
+            for (int i = 0; i < count; i++) {
+                String name = names.get(random.nextInt(names.size()));
+                char[] noisy = name.toLowerCase().toCharArray();
+                int position = random.nextInt(noisy.length);
+                if (noisy[position] != ' ') noisy[position] = (char) ('a' + random.nextInt(26));
+                blocks.add("ingredients water salt " + new String(noisy) + " natural flavour");
+                expected.add(name);
+            }
+        }
+    }
+
+    private static String randomWord(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) chars[i] = (char) ('a' + random.nextInt(26));
+        return new String(chars);
+    }
+}
@@ -0,0 +1,73 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for whole-word ingredient matching.
+ */
+public class IngredientMatcherTest {
+
+    private final IngredientMatcher matcher = new IngredientMatcher(Arrays.asList(
+            "Sugar", "Trans fat", "Peanut", "Tree Nut", "Nut", "Lactose"));
+
+    @Test
+    public void findsWholeWordsInOrder() {
+        Set<String> found = matcher.match("Ingredients: wheat flour, PEANUT oil, sugar.");
+        assertEquals(Arrays.asList("Peanut", "Sugar"), new ArrayList<>(found));
+    }
+
+    @Test
+    public void ignoresPartialWords() {
+        assertTrue(matcher.match("sugarcane peanuts lactosefree").isEmpty());
+    }
+
+    @Test
+    public void multiWordAndOverlappingNames() {
+        Set<String> found = matcher.match("may contain tree-nut traces; trans  fat 0g");
+        assertTrue(found.contains("Tree Nut"));
+        assertTrue(found.contains("Nut"));
+        assertTrue(found.contains("Trans fat"));
+    }
+
+    @Test
+    public void diacriticsAreIgnored() {
+        assertTrue(matcher.match("Lactosé").contains("Lactose"));
+    }
+
+    @Test
+    public void aliasesReportCanonicalName() {
+        Map<String, String> aliases = new HashMap<>();
+        aliases.put("E322", "Soy lecithin");
+        aliases.put("lecithin (soy)", "Soy lecithin");
+        IngredientMatcher withAliases = new IngredientMatcher(
+                Arrays.asList("Soy lecithin", "Sugar"), aliases);
+
+        assertEquals(Arrays.asList("Soy lecithin"),
+                new ArrayList<>(withAliases.match("emulsifier: lecithin (soy), E322")));
+        assertTrue(withAliases.match("emulsifier (E 322)").contains("Soy lecithin"));
+        assertTrue(withAliases.match("E3220").isEmpty());
+        assertEquals(2, withAliases.size());
+    }
+
+    @Test
+    public void largeDictionary_matchesOnlyWhatIsPresent() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            names.add("additive " + i);
+        }
+        names.add("Sugar");
+        IngredientMatcher large = new IngredientMatcher(names);
+
+        Set<String> found = large.match("water, additive 1234, sugar, additive 12345");
+        assertEquals(Arrays.asList("additive 1234", "Sugar"), new ArrayList<>(found));
+    }
+}
@@ -0,0 +1,55 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for reading the ingredient dataset CSV.
+ */
+public class IngredientRecordTest {
+
+    @Test
+    public void readsColumnsByHeaderName() throws IOException {
+        String csv = "severity,name,e_number,effects,synonyms\n"
+                + "high,Soy lecithin,E322,\"Allergen, soy\",lecithin (soy)|soya lecithin\n"
+                + "\n"
+                + "1,Sugar,,May increase blood sugar,\n";
+
+        List<IngredientRecord> records = read(csv);
+
+        assertEquals(2, records.size());
+        IngredientRecord soy = records.get(0);
+        assertEquals("Soy lecithin", soy.name);
+        assertEquals("E322", soy.eNumber);
+        assertEquals("Allergen, soy", soy.effects);
+        assertEquals(3, soy.severity);
+        assertEquals(Arrays.asList("lecithin (soy)", "soya lecithin"), soy.synonyms);
+
+        IngredientRecord sugar = records.get(1);
+        assertNull(sugar.eNumber);
+        assertEquals(1, sugar.severity);
+        assertTrue(sugar.synonyms.isEmpty());
+    }
+
+    @Test
+    public void doubledQuotesAreUnescaped() throws IOException {
+        List<IngredientRecord> records = read("name,effects\nAlcohol,\"Labelled \"\"ethanol\"\"\"\n");
+        assertEquals("Labelled \"ethanol\"", records.get(0).effects);
+    }
+
+    @Test(expected = IOException.class)
+    public void missingNameColumn_isRejected() throws IOException {
+        read("ingredient,effects\nSugar,x\n");
+    }
+
+    private static List<IngredientRecord> read(String csv) throws IOException {
+        return IngredientRecord.readCsv(new BufferedReader(new StringReader(csv)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for stitching label lines across frames.
+ */
+public class LabelDocumentAccumulatorTest {
+
+    @Test
+    public void linesAreDeduplicatedAcrossFrames() {
+        LabelDocumentAccumulator accumulator = new LabelDocumentAccumulator(2, 100);
+
+        accumulator.addLine("INGREDIENTS: Sugar, salt");
+        accumulator.endFrame();
+        accumulator.addLine("Ingredients - sugar salt");
+        accumulator.addLine("peanut oil, E322");
+        accumulator.endFrame();
+
+        assertEquals(2, accumulator.lineCount());
+        assertEquals("ingredients sugar salt\npeanut oil e322", accumulator.getDocumentText());
+    }
+
+    @Test
+    public void stableOnlyAfterNoNewLines_andReportedOnce() {
+        LabelDocumentAccumulator accumulator = new LabelDocumentAccumulator(2, 100);
+
+        accumulator.addLine("sugar salt");
+        assertFalse(accumulator.endFrame());
+        accumulator.addLine("sugar salt");
+        assertFalse(accumulator.endFrame());
+        assertTrue(accumulator.endFrame());
+        assertFalse(accumulator.endFrame());
+
+        // Panning to more of the label makes it unstable again
+        accumulator.addLine("contains peanuts");
+        assertFalse(accumulator.endFrame());
+        assertFalse(accumulator.endFrame());
+        assertTrue(accumulator.endFrame());
+    }
+
+    @Test
+    public void lines_keepTheOrderTheyWereFirstAdded() {
+        LabelDocumentAccumulator accumulator = new LabelDocumentAccumulator(1, 100);
+
+        accumulator.addLine("first line");
+        accumulator.addLine("second line");
+        accumulator.endFrame();
+        accumulator.addLine("First line");
+        accumulator.addLine("third line");
+        accumulator.endFrame();
+
+        assertEquals("first line\nsecond line\nthird line", accumulator.getDocumentText());
+    }
+
+    @Test
+    public void fragmentsAndOverflowAreIgnored() {
+        LabelDocumentAccumulator accumulator = new LabelDocumentAccumulator(1, 2);
+
+        accumulator.addLine("a.");
+        accumulator.addLine("line one");
+        accumulator.addLine("line two");
+        accumulator.addLine("line three");
+
+        assertEquals(2, accumulator.lineCount());
+    }
+}
@@ -0,0 +1,121 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for track association and time-to-collision estimation.
+ */
+public class ObjectTrackerTest {
+
+    private static final int CHAIR = 56;
+    private static final int PERSON = 0;
+
+    @Test
+    public void movingObject_keepsTrackId() {
+        ObjectTracker tracker = new ObjectTracker();
+        int firstId = -1;
+
+        for (int frame = 0; frame < 10; frame++) {
+            float x = 100 + frame * 8;
+            List<ObjectTracker.Track> tracks = tracker.update(
+                    single(CHAIR, x, 100, x + 80, 200, frame * 100L));
+            assertEquals(1, tracks.size());
+            if (frame == 0) firstId = tracks.get(0).id;
+            assertEquals(firstId, tracks.get(0).id);
+        }
+        assertTrue(tracker.getTracks().get(0).velocityX > 0f);
+    }
+
+    @Test
+    public void shortDropout_coastsInsteadOfNewTrack() {
+        ObjectTracker tracker = new ObjectTracker();
+        int id = tracker.update(single(CHAIR, 100, 100, 180, 200, 0)).get(0).id;
+        tracker.update(new DetectionFrame(0, new float[0], new int[0], new float[0], 100));
+        tracker.update(new DetectionFrame(0, new float[0], new int[0], new float[0], 200));
+        List<ObjectTracker.Track> tracks = tracker.update(single(CHAIR, 100, 100, 180, 200, 300));
+
+        assertEquals(1, tracks.size());
+        assertEquals(id, tracks.get(0).id);
+        assertEquals(0, tracks.get(0).misses);
+    }
+
+    @Test
+    public void differentLabels_areNotMerged() {
+        ObjectTracker tracker = new ObjectTracker();
+        float[] boxes = {100, 100, 180, 200, 102, 100, 182, 200};
+        List<ObjectTracker.Track> tracks = tracker.update(new DetectionFrame(2, boxes,
+                new int[]{CHAIR, PERSON}, new float[]{0.8f, 0.7f}, 0));
+        assertEquals(2, tracks.size());
+        assertNotEquals(tracks.get(0).id, tracks.get(1).id);
+    }
+
+    @Test
+    public void approachingObject_hasFiniteTimeToCollision() {
+        ObjectTracker tracker = new ObjectTracker();
+
+        // Object 5 m away approaching at 1 m/s; apparent size scales with 1 / distance
+        for (int frame = 0; frame <= 7; frame++) {
+            long t = frame * 100L;
+            float distance = 5f - t / 1000f;
+            float half = 100f / distance;
+            tracker.update(single(PERSON, 240 - half, 240 - half, 240 + half, 240 + half, t));
+        }
+
+        // Actual TTC at the last frame is 4.3 s; the fit averages over the window
+        float ttc = tracker.getTracks().get(0).timeToCollisionMs();
+        assertTrue("ttc " + ttc, ttc > 3500f && ttc < 5500f);
+    }
+
+    @Test
+    public void recedingObject_hasNoTimeToCollision() {
+        ObjectTracker tracker = new ObjectTracker();
+
+        for (int frame = 0; frame <= 7; frame++) {
+            float half = 50f - frame * 3f;
+            tracker.update(single(PERSON, 240 - half, 240 - half, 240 + half, 240 + half, frame * 100L));
+        }
+
+        assertTrue(Float.isInfinite(tracker.getTracks().get(0).timeToCollisionMs()));
+    }
+
+    @Test
+    public void toFrame_carriesTrackIdsAndVelocities() {
+        ObjectTracker tracker = new ObjectTracker();
+        tracker.update(single(CHAIR, 100, 100, 180, 200, 0));
+        tracker.update(single(CHAIR, 110, 100, 190, 200, 100));
+
+        DetectionFrame frame = tracker.toFrame();
+        assertEquals(1, frame.size());
+        assertTrue(frame.hasTracks());
+        assertEquals(CHAIR, frame.labelId(0));
+        assertEquals(tracker.getTracks().get(0).id, frame.trackId(0));
+        assertTrue(frame.velocityX(0) > 0f);
+    }
+
+    @Test
+    public void toFrame_keepsWhenACoastingTrackWasLastSeen() {
+        ObjectTracker tracker = new ObjectTracker();
+        tracker.update(new DetectionFrame(2, new float[]{100, 100, 180, 200, 300, 100, 380, 200},
+                new int[]{CHAIR, CHAIR}, new float[]{0.8f, 0.8f}, 0));
+        // The second chair is missed from here on and coasts
+        tracker.update(single(CHAIR, 100, 100, 180, 200, 100));
+        tracker.update(single(CHAIR, 100, 100, 180, 200, 200));
+
+        DetectionFrame frame = tracker.toFrame();
+        assertEquals(2, frame.size());
+        assertEquals(200, frame.getTimestamp());
+        for (int i = 0; i < frame.size(); i++) {
+            assertEquals(frame.left(i) < 200 ? 200 : 0, frame.seenAt(i));
+        }
+    }
+
+    private static DetectionFrame single(int labelId, float left, float top, float right, float bottom,
+                                         long timestamp) {
+        return new DetectionFrame(1, new float[]{left, top, right, bottom},
+                new int[]{labelId}, new float[]{0.8f}, timestamp);
+    }
+}
@@ -0,0 +1,92 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for the LRU index over pre-synthesized phrase files.
+ */
+public class PhraseCacheIndexTest {
+
+    private static File write(PhraseCacheIndex index, String key, int bytes) throws IOException {
+        File file = index.fileFor(key);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[bytes]);
+        }
+        return file;
+    }
+
+    @Test
+    public void leastRecentlyUsed_isEvictedOverTheLimit() throws IOException {
+        File dir = Files.createTempDirectory("phrases").toFile();
+        PhraseCacheIndex index = new PhraseCacheIndex(dir, 250);
+        index.load();
+
+        index.put("a", write(index, "a", 100));
+        index.put("b", write(index, "b", 100));
+        assertNotNull(index.get("a")); // a is now more recent than b
+        index.put("c", write(index, "c", 100));
+
+        assertTrue(index.contains("a"));
+        assertFalse(index.contains("b"));
+        assertFalse(index.fileFor("b").exists());
+        assertTrue(index.contains("c"));
+        assertEquals(200, index.totalBytes());
+    }
+
+    @Test
+    public void pinnedPhrases_areNeverEvicted() throws IOException {
+        File dir = Files.createTempDirectory("phrases").toFile();
+        PhraseCacheIndex index = new PhraseCacheIndex(dir, 250);
+        index.load();
+        index.pin("greeting");
+
+        index.put("greeting", write(index, "greeting", 100));
+        index.put("a", write(index, "a", 100));
+        index.put("b", write(index, "b", 100));
+        index.put("c", write(index, "c", 100));
+
+        assertTrue(index.contains("greeting"));
+        assertTrue(index.fileFor("greeting").exists());
+        assertFalse(index.contains("a"));
+        assertFalse(index.contains("b"));
+        assertTrue(index.contains("c"));
+        assertEquals(200, index.totalBytes());
+    }
+
+    @Test
+    public void rewrittenFile_isCountedOnce() throws IOException {
+        File dir = Files.createTempDirectory("phrases").toFile();
+        PhraseCacheIndex index = new PhraseCacheIndex(dir, 1000);
+        index.load();
+
+        index.put("a", write(index, "a", 100));
+        index.put("a", write(index, "a", 300));
+
+        assertEquals(1, index.size());
+        assertEquals(300, index.totalBytes());
+    }
+
+    @Test
+    public void load_indexesFilesFromAnEarlierRun_andDropsEmptyOnes() throws IOException {
+        File dir = Files.createTempDirectory("phrases").toFile();
+        PhraseCacheIndex first = new PhraseCacheIndex(dir, 1000);
+        first.load();
+        first.put("greeting", write(first, "greeting", 400));
+        write(first, "partial", 0);
+
+        PhraseCacheIndex second = new PhraseCacheIndex(dir, 1000);
+        second.load();
+
+        assertEquals(first.fileFor("greeting"), second.get("greeting"));
+        assertNull(second.get("partial"));
+        assertFalse(second.fileFor("partial").exists());
+        assertEquals(400, second.totalBytes());
+    }
+}
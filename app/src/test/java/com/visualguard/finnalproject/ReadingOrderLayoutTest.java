@@ -0,0 +1,74 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for ordering OCR lines by column.
+ */
+public class ReadingOrderLayoutTest {
+
+    private final ReadingOrderLayout layout = new ReadingOrderLayout();
+
+    @Test
+    public void twoColumns_areReadColumnByColumn() {
+        // Returned interleaved, as ML Kit often does for menus
+        float[] boxes = {
+                10, 100, 190, 120,   // 0 left 1
+                210, 100, 390, 120,  // 1 right 1
+                10, 130, 170, 150,   // 2 left 2
+                210, 130, 380, 150,  // 3 right 2
+        };
+        assertArrayEquals(new int[]{0, 2, 1, 3}, layout.order(boxes, 4));
+    }
+
+    @Test
+    public void spanningHeading_splitsSections() {
+        float[] boxes = {
+                210, 200, 390, 220,  // 0 right column, lower section
+                10, 10, 390, 40,     // 1 title across the page
+                10, 60, 190, 80,     // 2 left column, upper section
+                210, 60, 390, 80,    // 3 right column, upper section
+                10, 160, 390, 180,   // 4 full-width divider text
+                10, 200, 190, 220,   // 5 left column, lower section
+        };
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 0}, layout.order(boxes, 6));
+    }
+
+    @Test
+    public void singleColumnWithRaggedLines_staysTopToBottom() {
+        float[] boxes = {
+                10, 40, 120, 60,
+                10, 10, 300, 30,
+                30, 70, 200, 90,
+        };
+        assertArrayEquals(new int[]{1, 0, 2}, layout.order(boxes, 3));
+    }
+
+    @Test
+    public void hundredsOfLines_areOrderedByColumn() {
+        int count = 600;
+        float[] boxes = new float[count * 4];
+        Random random = new Random(3);
+        for (int i = 0; i < count; i++) {
+            int column = random.nextInt(3);
+            float left = column * 300 + random.nextInt(20);
+            float top = random.nextInt(3000);
+            boxes[i * 4] = left;
+            boxes[i * 4 + 1] = top;
+            boxes[i * 4 + 2] = left + 150 + random.nextInt(100);
+            boxes[i * 4 + 3] = top + 20;
+        }
+
+        int[] order = layout.order(boxes, count);
+
+        assertEquals(count, order.length);
+        // All of column 0 precedes column 1, which precedes column 2
+        for (int i = 1; i < count; i++) {
+            assertTrue((int) boxes[order[i] * 4] / 300 >= (int) boxes[order[i - 1] * 4] / 300);
+        }
+    }
+}
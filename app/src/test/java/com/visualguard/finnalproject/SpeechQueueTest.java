@@ -0,0 +1,196 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for the speech ordering policy.
+ */
+public class SpeechQueueTest {
+
+    private static final long NOW = 10_000L;
+
+    private static Utterance utterance(String text, Utterance.Priority priority) {
+        return new Utterance(text, priority, Utterance.DEFAULT_RATE);
+    }
+
+    private static Utterance info(String text, String key) {
+        return new Utterance(text, Utterance.Priority.INFO, Utterance.DEFAULT_RATE, key, NOW, Utterance.NO_DEADLINE);
+    }
+
+    private static Utterance keyed(String text, String key, long deadline) {
+        return new Utterance(text, Utterance.Priority.SAFETY, Utterance.DEFAULT_RATE, key, NOW, deadline);
+    }
+
+    @Test
+    public void mostUrgentIsSpokenFirst() {
+        SpeechQueue queue = new SpeechQueue();
+        queue.offer(utterance("status", Utterance.Priority.INFO), NOW);
+        queue.offer(utterance("opening", Utterance.Priority.NAVIGATION), NOW);
+        queue.offer(utterance("knife ahead", Utterance.Priority.SAFETY), NOW);
+        queue.offer(utterance("help sent", Utterance.Priority.EMERGENCY), NOW);
+
+        assertEquals("knife ahead", queue.next(NOW).text);
+        assertEquals("help sent", queue.next(NOW).text);
+        assertEquals("opening", queue.next(NOW).text);
+        assertEquals("status", queue.next(NOW).text);
+        assertNull(queue.next(NOW));
+    }
+
+    @Test
+    public void safetyAlert_preemptsStatusReadout_whichIsRepeatedAfterwards() {
+        SpeechQueue queue = new SpeechQueue();
+        queue.offer(utterance("status", Utterance.Priority.INFO), NOW);
+        queue.next(NOW);
+
+        assertTrue(queue.offer(utterance("knife ahead", Utterance.Priority.SAFETY), NOW));
+        queue.interrupt();
+        assertEquals("knife ahead", queue.next(NOW).text);
+        queue.finish();
+        assertEquals("status", queue.next(NOW).text);
+    }
+
+    @Test
+    public void safetyAlertsForOneTrack_merge_andDoNotCutEachOther() {
+        SpeechQueue queue = new SpeechQueue();
+        queue.offer(keyed("chair left", "track:1", NOW + 1500), NOW);
+        queue.next(NOW);
+
+        assertFalse(queue.offer(keyed("table ahead", "track:2", NOW + 1500), NOW));
+        assertFalse(queue.offer(keyed("door right", "track:3", NOW + 1500), NOW));
+        assertFalse(queue.offer(keyed("table close ahead", "track:2", NOW + 1500), NOW));
+        assertEquals(2, queue.pendingCount());
+        assertEquals(1, queue.getMergedCount());
+
+        queue.finish();
+        // The update kept the place of the message it replaced
+        assertEquals("table close ahead", queue.next(NOW).text);
+        queue.finish();
+        assertEquals("door right", queue.next(NOW).text);
+    }
+
+    @Test
+    public void sameMessageAsTheOneBeingSpoken_isDropped() {
+        SpeechQueue queue = new SpeechQueue();
+        queue.offer(keyed("sugar", "ingredient:sugar", NOW + 10_000), NOW);
+        queue.next(NOW);
+
+        assertFalse(queue.offer(keyed("sugar", "ingredient:sugar", NOW + 10_000), NOW));
+        assertEquals(0, queue.pendingCount());
+    }
+
+    @Test
+    public void expiredAlerts_areDroppedBeforeTheyAreSpoken() {
+        SpeechQueue queue = new SpeechQueue();
+        queue.offer(utterance("status", Utterance.Priority.INFO), NOW);
+        queue.next(NOW);
+        queue.offer(keyed("chair left", "track:1", NOW + 1500), NOW);
+        queue.offer(keyed("door right", "track:3", NOW + 3000), NOW + 100);
+
+        queue.finish();
+        assertEquals("door right", queue.next(NOW + 2000).text);
+        assertEquals(1, queue.getExpiredCount());
+
+        queue.finish();
+        assertFalse(queue.offer(keyed("late", "track:4", NOW + 1500), NOW + 2000));
+        assertNull(queue.next(NOW + 2000));
+        assertEquals(2, queue.getExpiredCount());
+    }
+
+    @Test
+    public void expiredOrCancelledReads_tellTheirDropListener() {
+        List<String> dropped = new ArrayList<>();
+        Utterance.DropListener listener = utterance -> dropped.add(utterance.text);
+        SpeechQueue queue = new SpeechQueue();
+        queue.offer(utterance("long read", Utterance.Priority.INFO), NOW);
+        queue.next(NOW);
+        queue.offer(new Utterance("next page", Utterance.Priority.INFO, Utterance.DEFAULT_RATE,
+                "text:1", NOW, NOW + 8000, listener), NOW);
+        queue.offer(new Utterance("page after", Utterance.Priority.INFO, Utterance.DEFAULT_RATE,
+                "text:2", NOW, NOW + 60000, listener), NOW);
+
+        // Still behind the long read when its deadline passes
+        queue.finish();
+        assertEquals("page after", queue.next(NOW + 30000).text);
+        assertEquals(Arrays.asList("next page"), dropped);
+
+        assertTrue(queue.cancel("text:"));
+        assertEquals(Arrays.asList("next page", "page after"), dropped);
+    }
+
+    @Test
+    public void alertExpiringBehindAnotherAlert_tellsItsDropListener() {
+        List<String> dropped = new ArrayList<>();
+        SpeechQueue queue = new SpeechQueue();
+        queue.offer(keyed("person ahead, be careful", "track:1", NOW + 1500), NOW);
+        queue.next(NOW);
+        // Safety does not cut off safety, so this waits for the sentence being spoken
+        assertFalse(queue.offer(new Utterance("chair on your left", Utterance.Priority.SAFETY,
+                Utterance.DEFAULT_RATE, "track:2", NOW, NOW + 1500, u -> dropped.add(u.key)), NOW));
+
+        queue.finish();
+        assertNull(queue.next(NOW + 2500));
+        assertEquals(Arrays.asList("track:2"), dropped);
+    }
+
+    @Test
+    public void navigationFeedback_cutsOffEarlierFeedback_andIsNotRepeated() {
+        SpeechQueue queue = new SpeechQueue();
+        queue.offer(utterance("welcome", Utterance.Priority.NAVIGATION), NOW);
+        queue.next(NOW);
+
+        assertTrue(queue.offer(utterance("opening text reader", Utterance.Priority.NAVIGATION), NOW));
+        queue.interrupt();
+        assertEquals("opening text reader", queue.next(NOW).text);
+        queue.finish();
+        assertNull(queue.next(NOW));
+    }
+
+    @Test
+    public void lowerPriority_waitsAndIsKeptInOrder() {
+        SpeechQueue queue = new SpeechQueue();
+        queue.offer(utterance("help signal ready", Utterance.Priority.EMERGENCY), NOW);
+        queue.next(NOW);
+
+        assertFalse(queue.offer(utterance("line one", Utterance.Priority.INFO), NOW));
+        assertFalse(queue.offer(utterance("line two", Utterance.Priority.INFO), NOW));
+        queue.finish();
+        assertEquals("line one", queue.next(NOW).text);
+        queue.finish();
+        assertEquals("line two", queue.next(NOW).text);
+    }
+
+    @Test
+    public void cancel_dropsOnlyThatKeyPrefix() {
+        SpeechQueue queue = new SpeechQueue();
+        queue.offer(info("line one", "text:0"), NOW);
+        queue.next(NOW);
+        queue.offer(info("line two", "text:1"), NOW);
+        queue.offer(info("sugar", "ingredient:sugar"), NOW);
+        queue.offer(utterance("battery 80 percent", Utterance.Priority.INFO), NOW);
+        queue.offer(utterance("returning", Utterance.Priority.NAVIGATION), NOW);
+
+        assertTrue(queue.cancel("text:"));
+        queue.finish();
+        assertEquals("returning", queue.next(NOW).text);
+        assertEquals("sugar", queue.next(NOW).text);
+        assertEquals("battery 80 percent", queue.next(NOW).text);
+        queue.finish();
+        assertNull(queue.next(NOW));
+    }
+
+    @Test
+    public void cancel_keepsTheCurrentOneOfAnotherScreen() {
+        SpeechQueue queue = new SpeechQueue();
+        queue.offer(info("sugar", "ingredient:sugar"), NOW);
+        queue.next(NOW);
+
+        assertFalse(queue.cancel("text:"));
+        assertEquals("sugar", queue.current().text);
+    }
+}
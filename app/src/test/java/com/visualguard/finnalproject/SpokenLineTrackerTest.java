@@ -0,0 +1,59 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for deciding which OCR lines are new.
+ */
+public class SpokenLineTrackerTest {
+
+    @Test
+    public void sameLineWithDifferentPunctuation_isNotNew() {
+        SpokenLineTracker tracker = new SpokenLineTracker(10);
+        tracker.markSpoken(tracker.hash("Opening hours: 9 - 17"));
+
+        assertTrue(tracker.isSpoken(tracker.hash("opening hours 9-17")));
+        assertFalse(tracker.isSpoken(tracker.hash("Closed on Sundays")));
+    }
+
+    @Test
+    public void unspokenLine_isNewAgain() {
+        SpokenLineTracker tracker = new SpokenLineTracker(10);
+        tracker.markSpoken(tracker.hash("first line"));
+        tracker.markSpoken(tracker.hash("second line"));
+
+        tracker.markUnspoken(tracker.hash("second line"));
+        assertTrue(tracker.isSpoken(tracker.hash("first line")));
+        assertFalse(tracker.isSpoken(tracker.hash("second line")));
+    }
+
+    @Test
+    public void insertedLine_onlyThatLineIsNew() {
+        SpokenLineTracker tracker = new SpokenLineTracker(10);
+        tracker.markSpoken(tracker.hash("first line"));
+        tracker.markSpoken(tracker.hash("second line"));
+
+        assertFalse(tracker.isSpoken(tracker.hash("a new heading")));
+        assertTrue(tracker.isSpoken(tracker.hash("first line")));
+        assertTrue(tracker.isSpoken(tracker.hash("second line")));
+    }
+
+    @Test
+    public void shortFragments_areNotLines() {
+        SpokenLineTracker tracker = new SpokenLineTracker(10);
+        assertEquals(SpokenLineTracker.NOT_A_LINE, tracker.hash(" i. "));
+    }
+
+    @Test
+    public void oldestLinesAreForgottenBeyondCapacity() {
+        SpokenLineTracker tracker = new SpokenLineTracker(2);
+        tracker.markSpoken(tracker.hash("line one"));
+        tracker.markSpoken(tracker.hash("line two"));
+        tracker.markSpoken(tracker.hash("line three"));
+
+        assertEquals(2, tracker.size());
+        assertFalse(tracker.isSpoken(tracker.hash("line one")));
+    }
+}
@@ -0,0 +1,194 @@
+package com.visualguard.finnalproject;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for the status cache against a stand-in for the Open-Meteo APIs.
+ */
+public class StatusCacheTest {
+    private static final String PLACE_JSON = "{\"results\":[{\"name\":\"Hanoi\",\"country\":\"Vietnam\"}]}";
+    private static final String FORECAST_JSON = "{\"utc_offset_seconds\":25200,"
+            + "\"current_weather\":{\"temperature\":30.4,\"weathercode\":2,\"time\":\"2026-10-18T10:00\"},"
+            + "\"hourly\":{\"time\":[\"2026-10-18T09:00\",\"2026-10-18T10:00\"],\"relativehumidity_2m\":[65,70]},"
+            + "\"daily\":{\"weathercode\":[61],\"temperature_2m_max\":[33.1],\"temperature_2m_min\":[24.6]}}";
+    private static final double LAT = 21.0285;
+    private static final double LON = 105.8542;
+    // 2026-10-18 10:00 at UTC+7
+    private static final long NOW = 1792292400000L;
+
+    private HttpServer server;
+    private final AtomicInteger placeRequests = new AtomicInteger();
+    private final AtomicInteger forecastRequests = new AtomicInteger();
+    private final AtomicBoolean offline = new AtomicBoolean();
+    private File file;
+    private String base;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/reverse", exchange -> {
+            placeRequests.incrementAndGet();
+            respond(exchange, PLACE_JSON);
+        });
+        server.createContext("/forecast", exchange -> {
+            forecastRequests.incrementAndGet();
+            respond(exchange, FORECAST_JSON);
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+        file = new File(Files.createTempDirectory("status").toFile(), "status.json");
+    }
+
+    private void respond(com.sun.net.httpserver.HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(offline.get() ? 503 : 200, offline.get() ? -1 : bytes.length);
+        if (!offline.get()) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private StatusCache newCache() {
+        return new StatusCache(file, base + "/reverse", base + "/forecast");
+    }
+
+    @Test
+    public void repeatedRequest_inTheSameCell_isServedFromCache() {
+        StatusCache cache = newCache();
+        StatusCache.Status first = cache.get(LAT, LON, NOW);
+
+        assertEquals("Hanoi, Vietnam", first.place);
+        assertEquals(30.4, first.temperature, 1e-9);
+        assertEquals(70, first.humidity);
+        assertEquals(61, first.dailyCode);
+
+        // A few metres away, a minute later
+        StatusCache.Status second = cache.get(LAT + 0.0004, LON - 0.0003, NOW + 60_000);
+        assertSame(first, second);
+        assertEquals(1, placeRequests.get());
+        assertEquals(1, forecastRequests.get());
+    }
+
+    @Test
+    public void expiredWeather_isRefreshed_butThePlaceIsNot() {
+        StatusCache cache = newCache();
+        cache.get(LAT, LON, NOW);
+        StatusCache.Status later = cache.get(LAT, LON, NOW + StatusCache.WEATHER_TTL_MS + 1);
+
+        assertEquals(1, placeRequests.get());
+        assertEquals(2, forecastRequests.get());
+        assertFalse(later.isWeatherStale(NOW + StatusCache.WEATHER_TTL_MS + 1));
+    }
+
+    @Test
+    public void offline_returnsExpiredValuesWithTheirFetchTime() {
+        StatusCache cache = newCache();
+        cache.get(LAT, LON, NOW);
+        offline.set(true);
+
+        long later = NOW + 2 * 60 * 60 * 1000L;
+        StatusCache.Status status = cache.get(LAT, LON, later);
+        assertTrue(status.isWeatherStale(later));
+        assertEquals(NOW, status.weatherFetchedAt);
+        assertEquals(30.4, status.temperature, 1e-9);
+        assertEquals("Hanoi, Vietnam", status.place);
+        assertNotNull(cache.takeLastError());
+        assertNull(cache.takeLastError());
+    }
+
+    @Test
+    public void offline_doesNotRetryUntilTheBackoffHasPassed() {
+        StatusCache cache = newCache();
+        cache.get(LAT, LON, NOW);
+        offline.set(true);
+
+        long later = NOW + StatusCache.WEATHER_TTL_MS + 1;
+        cache.get(LAT, LON, later);
+        assertEquals(2, forecastRequests.get());
+
+        // Answered from the stale values without waiting on the network
+        StatusCache.Status status = cache.get(LAT, LON, later + StatusCache.RETRY_BACKOFF_MS - 1);
+        assertEquals(30.4, status.temperature, 1e-9);
+        assertEquals(2, forecastRequests.get());
+
+        // Retried once the backoff is over
+        offline.set(false);
+        long retry = later + StatusCache.RETRY_BACKOFF_MS;
+        assertFalse(cache.get(LAT, LON, retry).isWeatherStale(retry));
+        assertEquals(3, forecastRequests.get());
+    }
+
+    @Test
+    public void returningToACachedCell_makesItTheLastKnown() {
+        StatusCache cache = newCache();
+        StatusCache.Status home = cache.get(LAT, LON, NOW);
+        cache.get(LAT + 0.05, LON, NOW + 60_000);
+        assertSame(home, cache.get(LAT, LON, NOW + 120_000));
+
+        assertSame(home, cache.getLast());
+        assertEquals("Hanoi, Vietnam", newCache().getLast().place);
+        assertEquals(2, forecastRequests.get());
+    }
+
+    @Test
+    public void cacheHits_keepACellFromEviction() {
+        StatusCache cache = newCache();
+        for (int i = 0; i < 32; i++) {
+            cache.get(LAT + i * 0.05, LON, NOW + i);
+        }
+        // The oldest cell is used again, so the next new cell evicts the second oldest
+        cache.get(LAT, LON, NOW + 100);
+        cache.get(LAT + 32 * 0.05, LON, NOW + 200);
+        assertEquals(33, forecastRequests.get());
+
+        cache.get(LAT, LON, NOW + 300);
+        assertEquals(33, forecastRequests.get());
+        cache.get(LAT + 0.05, LON, NOW + 400);
+        assertEquals(34, forecastRequests.get());
+    }
+
+    @Test
+    public void cacheSurvivesRestart_andAnswersWithoutNetwork() {
+        newCache().get(LAT, LON, NOW);
+        server.stop(0);
+
+        StatusCache restarted = newCache();
+        StatusCache.Status status = restarted.get(LAT, LON, NOW + 60_000);
+        assertEquals("Hanoi, Vietnam", status.place);
+        assertEquals(70, status.humidity);
+        assertTrue(status.hasDaily(NOW + 60_000));
+        assertSame(status, restarted.getLast());
+    }
+
+    @Test
+    public void dailyForecast_isValidUntilLocalMidnight() {
+        StatusCache.Status status = newCache().get(LAT, LON, NOW);
+
+        // 14 hours after 10:00 local time
+        assertEquals(NOW + 14 * 60 * 60 * 1000L, status.dailyValidUntil);
+        assertTrue(status.hasDaily(NOW + 14 * 60 * 60 * 1000L - 1));
+        assertFalse(status.hasDaily(NOW + 14 * 60 * 60 * 1000L));
+    }
+}
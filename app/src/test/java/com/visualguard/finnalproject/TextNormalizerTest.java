@@ -0,0 +1,66 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for the table-driven normalizer against the regex pipeline it replaces.
+ */
+public class TextNormalizerTest {
+
+    @Test
+    public void foldsCaseDiacriticsAndPunctuation() {
+        assertEquals("creme brulee 2 eggs", TextNormalizer.normalizeToString("  Crème-Brûlée (2 EGGS)! "));
+        assertEquals("duong sua", TextNormalizer.normalizeToString("Đường, sữa"));
+        assertEquals("", TextNormalizer.normalizeToString(" ,;. "));
+        assertEquals("", TextNormalizer.normalizeToString(null));
+    }
+
+    @Test
+    public void decomposedInput_marksAreDropped() {
+        assertEquals("cafe", TextNormalizer.normalizeToString("café"));
+    }
+
+    @Test
+    public void matchesRegexPipeline_onRandomLatinText() {
+        String alphabet = "abcXYZ019 ,.-()éÉèàçñöÅŒœßİıšžĂăơưạệ\t\n/%";
+        Random random = new Random(7);
+        TextNormalizer normalizer = new TextNormalizer();
+
+        for (int round = 0; round < 2000; round++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = sb.toString();
+            normalizer.normalize(text);
+            assertEquals(text, regexNormalize(text), normalizer.toString());
+        }
+    }
+
+    @Test
+    public void bufferIsReused() {
+        TextNormalizer normalizer = new TextNormalizer();
+        normalizer.normalize("first text");
+        char[] buffer = normalizer.buffer();
+        normalizer.normalize("second");
+        assertSame(buffer, normalizer.buffer());
+        assertEquals(6, normalizer.length());
+    }
+
+    /**
+     * The normalization previously used by IngredientDbHelper
+     */
+    private static String regexNormalize(String s) {
+        String t = s.toLowerCase(Locale.ROOT).trim();
+        t = java.text.Normalizer.normalize(t, java.text.Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        t = t.replaceAll("[^a-z0-9\\s]", " ");
+        return t.replaceAll("\\s+", " ").trim();
+    }
+}
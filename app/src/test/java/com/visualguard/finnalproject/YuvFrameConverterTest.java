@@ -0,0 +1,92 @@
+package com.visualguard.finnalproject;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for the fused YUV -> RGB -> resize step used by obstacle detection.
+ */
+public class YuvFrameConverterTest {
+
+    private static final int WIDTH = 640;
+    private static final int HEIGHT = 480;
+    private static final int OUT_SIZE = 480;
+
+    @Test
+    public void grayFrame_producesGrayRgb() {
+        ByteBuffer y = filled(WIDTH * HEIGHT, 100);
+        ByteBuffer u = filled(WIDTH * HEIGHT / 2, 128);
+        ByteBuffer v = filled(WIDTH * HEIGHT / 2, 128);
+        ByteBuffer out = ByteBuffer.allocateDirect(OUT_SIZE * OUT_SIZE * 3);
+
+        new YuvFrameConverter().yuvToRgbResized(y, u, v, WIDTH, WIDTH, 2,
+                WIDTH, HEIGHT, 90, out, OUT_SIZE);
+
+        for (int i = 0; i < OUT_SIZE * OUT_SIZE * 3; i++) {
+            assertEquals(100, out.get(i) & 0xFF);
+        }
+    }
+
+    @Test
+    public void rotation90_mapsSensorTopRowToRightColumn() {
+        // 4x2 sensor frame, top row bright, bottom row dark
+        int w = 4, h = 2;
+        ByteBuffer y = ByteBuffer.allocateDirect(w * h);
+        for (int x = 0; x < w; x++) {
+            y.put(x, (byte) 200);
+            y.put(w + x, (byte) 20);
+        }
+        ByteBuffer u = filled(w * h / 2, 128);
+        ByteBuffer v = filled(w * h / 2, 128);
+        ByteBuffer out = ByteBuffer.allocateDirect(2 * 2 * 3);
+
+        new YuvFrameConverter().yuvToRgbResized(y, u, v, w, w, 2, w, h, 90, out, 2);
+
+        // After a clockwise rotation the sensor top row ends up on the right
+        assertEquals(20, out.get(0) & 0xFF);
+        assertEquals(200, out.get(3) & 0xFF);
+        assertEquals(20, out.get(6) & 0xFF);
+        assertEquals(200, out.get(9) & 0xFF);
+    }
+
+    @Test
+    public void steadyStateConversion_doesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        ByteBuffer y = filled(WIDTH * HEIGHT, 90);
+        ByteBuffer u = filled(WIDTH * HEIGHT / 2, 110);
+        ByteBuffer v = filled(WIDTH * HEIGHT / 2, 150);
+        ByteBuffer out = ByteBuffer.allocateDirect(OUT_SIZE * OUT_SIZE * 3);
+        YuvFrameConverter converter = new YuvFrameConverter();
+
+        // Warm up so sampling tables exist and the loop is compiled
+        for (int i = 0; i < 20; i++) {
+            converter.yuvToRgbResized(y, u, v, WIDTH, WIDTH, 2, WIDTH, HEIGHT, 90, out, OUT_SIZE);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100; i++) {
+            converter.yuvToRgbResized(y, u, v, WIDTH, WIDTH, 2, WIDTH, HEIGHT, 90, out, OUT_SIZE);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // A single 480x480 RGB frame is ~690 KB; allow only measurement noise
+        assertTrue("Allocated " + allocated + " bytes over 100 frames", allocated < 1024);
+    }
+
+    private static ByteBuffer filled(int size, int value) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        for (int i = 0; i < size; i++) {
+            buffer.put(i, (byte) value);
+        }
+        return buffer;
+    }
+}